@@ -0,0 +1,10 @@
+-- Product and item ids moved from IDENTITY to pooled sequences (allocation size 50)
+-- so Hibernate can batch inserts. Run once on databases created before that change,
+-- before starting the new version of the application.
+
+CREATE SEQUENCE IF NOT EXISTS product_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_seq INCREMENT BY 50;
+
+-- The pooled optimizer hands out (value - 49 .. value), so start past the current maximum
+SELECT setval('product_seq', COALESCE(MAX(id), 0) + 50) FROM product;
+SELECT setval('item_seq', COALESCE(MAX(id), 0) + 50) FROM item;
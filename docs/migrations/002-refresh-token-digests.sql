@@ -0,0 +1,17 @@
+-- Refresh tokens are no longer stored: each session row keeps the SHA-256 digest of its token
+-- in token_hash. Run once on databases created before that change, before starting the new
+-- version of the application. Tokens already issued keep working, since the application looks
+-- up the digest of whatever token the client presents, including the old UUID strings.
+
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS token_hash bytea;
+
+UPDATE refresh_token
+SET token_hash = sha256(convert_to(token, 'UTF8'))
+WHERE token_hash IS NULL;
+
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_token ADD CONSTRAINT refresh_token_token_hash_length CHECK (octet_length(token_hash) = 32);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_token_token_hash ON refresh_token (token_hash);
+
+-- Drops the plaintext tokens together with their unique index
+ALTER TABLE refresh_token DROP COLUMN token;
@@ -0,0 +1,28 @@
+package com.anurag.productapi.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers cache invalidations until the surrounding transaction commits, so a concurrent reader
+ * cannot repopulate a cache with data that is about to change.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    // Runs once the surrounding transaction commits, or right away outside a transaction
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
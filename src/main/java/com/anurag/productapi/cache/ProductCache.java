@@ -0,0 +1,79 @@
+package com.anurag.productapi.cache;
+
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting read-through cache of single product responses.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Integer, ProductResponse> cache;
+
+    // Bumped on every invalidation. A load only populates the cache if no invalidation
+    // happened since it started, so a value read before a commit can never overwrite
+    // the invalidation of that commit.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(@Value("${app.cache.product.maxSize}") long maxSize,
+                        @Value("${app.cache.product.ttlMs}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public ProductResponse get(Integer id, Function<Integer, ProductResponse> loader) {
+        ProductResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = invalidations.get();
+        ProductResponse loaded = loader.apply(id);
+        // evict() bumps the counter inside compute() on the same key, so this check and an
+        // invalidation of this id can't interleave
+        cache.asMap().compute(id, (key, current) -> invalidations.get() == stamp ? loaded : current);
+        return loaded;
+    }
+
+    // Looks up without loading and without counting towards hit/miss statistics
+    public ProductResponse peek(Integer id) {
+        return cache.policy().getIfPresentQuietly(id);
+    }
+
+    public void evict(Integer id) {
+        cache.asMap().compute(id, (key, current) -> {
+            invalidations.incrementAndGet();
+            return null;
+        });
+    }
+
+    // Evicts once the surrounding transaction commits, or right away outside a transaction
+    public void evictAfterCommit(Integer id) {
+        AfterCommit.run(() -> evict(id));
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name("products")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.anurag.productapi.cache;
+
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.anurag.productapi.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current token version per username, so access tokens can be checked for revocation without a query per request.
+ * <p>
+ * Changes made on this instance are visible immediately; changes made on other instances
+ * become visible once the entry's TTL runs out.
+ */
+@Component
+public class TokenVersionCache {
+
+    // Cached for usernames that no longer exist, so their tokens never match
+    private static final long UNKNOWN_USER = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> cache;
+
+    // Same guard as ProductCache: a load that started before an invalidation must not overwrite it
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${app.jwt.tokenVersionCache.maxSize}") long maxSize,
+                             @Value("${app.jwt.tokenVersionCache.ttlMs}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isCurrent(String username, long tokenVersion) {
+        return currentVersion(username) == tokenVersion;
+    }
+
+    private long currentVersion(String username) {
+        Long cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = invalidations.get();
+        long loaded = userRepository.findTokenVersionByUsername(username).orElse(UNKNOWN_USER);
+        cache.asMap().compute(username, (key, current) -> invalidations.get() == stamp ? loaded : current);
+        return loaded;
+    }
+
+    public void evict(String username) {
+        cache.asMap().compute(username, (key, current) -> {
+            invalidations.incrementAndGet();
+            return null;
+        });
+    }
+
+    // Evicts once the surrounding transaction commits, or right away outside a transaction
+    public void evictAfterCommit(String username) {
+        AfterCommit.run(() -> evict(username));
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name("tokenVersions")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
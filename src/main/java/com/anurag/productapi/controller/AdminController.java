@@ -0,0 +1,123 @@
+package com.anurag.productapi.controller;
+
+import com.anurag.productapi.cache.ProductCache;
+import com.anurag.productapi.cache.TokenVersionCache;
+import com.anurag.productapi.dto.request.RoleChangeRequest;
+import com.anurag.productapi.dto.response.BulkheadStatsResponse;
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.anurag.productapi.dto.response.OutboxStatsResponse;
+import com.anurag.productapi.observability.RequestMetrics;
+import com.anurag.productapi.scheduler.NotificationOutboxDispatcher;
+import com.anurag.productapi.security.JwtUtils;
+import com.anurag.productapi.security.PasswordHashingBulkhead;
+import com.anurag.productapi.security.UserDetailsServiceImpl;
+import com.anurag.productapi.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final ProductCache productCache;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtUtils jwtUtils;
+    private final PasswordHashingBulkhead passwordHashingBulkhead;
+    private final UserService userService;
+    private final NotificationOutboxDispatcher notificationOutboxDispatcher;
+    private final RequestMetrics requestMetrics;
+
+    @Operation(summary = "Get hit, miss and eviction statistics of the in-process caches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content)
+    })
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        List<CacheStatsResponse> stats = new ArrayList<>(
+                List.of(productCache.stats(), tokenVersionCache.stats(), userDetailsService.stats()));
+        jwtUtils.verifiedTokenStats().ifPresent(stats::add);
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(summary = "Get queue depth, rejections and timings of the worker bulkheads")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulkhead statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content)
+    })
+    @GetMapping("/bulkheads")
+    public ResponseEntity<List<BulkheadStatsResponse>> getBulkheadStats() {
+        return ResponseEntity.ok(List.of(passwordHashingBulkhead.stats()));
+    }
+
+    @Operation(summary = "Get depth, lag and delivery counters of the notification outbox")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outbox statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content)
+    })
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStatsResponse> getOutboxStats() {
+        return ResponseEntity.ok(notificationOutboxDispatcher.stats());
+    }
+
+    @Operation(summary = "Scrape request latency, authentication failure and exception metrics",
+            description = "Prometheus text format. Latency quantiles and max cover the interval since the previous scrape.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully",
+                    content = @Content(mediaType = PROMETHEUS_TEXT)),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content)
+    })
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_TEXT)
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok(requestMetrics.scrape());
+    }
+
+    @Operation(summary = "Revoke all tokens of a user",
+            description = "Outstanding access tokens are rejected from now on and refresh tokens are deleted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revoked", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
+    })
+    @PostMapping("/users/{username}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(
+            @Parameter(description = "Username of the user") @PathVariable String username) {
+        userService.revokeTokens(username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Change the role of a user",
+            description = "Access tokens issued with the previous role are rejected from now on.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Role changed", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid role", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Admin role required", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
+    })
+    @PutMapping("/users/{username}/role")
+    public ResponseEntity<Void> changeRole(
+            @Parameter(description = "Username of the user") @PathVariable String username,
+            @Valid @RequestBody RoleChangeRequest request) {
+        userService.changeRole(username, request.getRole());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,8 +1,13 @@
 package com.anurag.productapi.controller;
 
+import com.anurag.productapi.dto.request.ProductBatchRequest;
 import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.BulkDeleteResponse;
+import com.anurag.productapi.dto.response.CursorPageResponse;
 import com.anurag.productapi.dto.response.ItemResponse;
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
 import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.service.ProductChangeService;
 import com.anurag.productapi.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,14 +16,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -27,22 +39,70 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final String HAS_NEXT_HEADER = "X-Has-Next";
+
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
 
     @Operation(summary = "Get all products with pagination")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Page of products retrieved successfully",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ProductResponse.class)))
+                            schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the given ETag", content = @Content)
     })
     @GetMapping
     public ResponseEntity<Page<ProductResponse>> getAll(
             @Parameter(description = "Page number (starts from 0)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Number of items per page") @RequestParam(defaultValue = "10") int size) {
 
-        return ResponseEntity.ok(
-                productService.getAllProducts(PageRequest.of(page, size))
-        );
+        Page<ProductResponse> products = productService.getAllProducts(PageRequest.of(page, size));
+        // A matching If-None-Match turns this into a 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forPage(products))
+                .body(products);
+    }
+
+    @Operation(summary = "Get products with cursor (keyset) pagination",
+            description = "Pages through products ordered by creation time. Pass the returned 'next' cursor "
+                    + "to get the following page; no total count is computed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or 'size'", content = @Content)
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> scroll(
+            @Parameter(description = "Cursor from the previous page, omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per page (1 to 100)")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        CursorPageResponse<ProductResponse> products = productService.getProductsAfter(cursor, size);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forList(cursor + "|" + size + "|" + products.getNext(), products.getContent()))
+                .body(products);
+    }
+
+    @Operation(summary = "Get product changes after a sequence number",
+            description = "Returns creates, updates and deletes in the order they were made, in batches. "
+                    + "Start with since=0 and pass the returned 'next' as 'since' on the following call; "
+                    + "'hasMore' tells whether to call again right away or poll later. A change only names "
+                    + "the product; read the product to get its current state.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductChangeFeedResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid 'since' or 'limit'", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Changes after 'since' were compacted; "
+                    + "re-read the catalog and resume from the sequence in the message", content = @Content)
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedResponse> changes(
+            @Parameter(description = "Last sequence number already seen, 0 to start from the beginning")
+            @RequestParam(defaultValue = "0") @PositiveOrZero long since,
+            @Parameter(description = "Maximum number of changes to return (1 to 1000)")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return ResponseEntity.ok(productChangeService.getChangesSince(since, limit));
     }
 
     @Operation(summary = "Get a single product by ID")
@@ -50,11 +110,19 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Product retrieved successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Product unchanged since the given ETag or date", content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getById(
-            @Parameter(description = "ID of the product to retrieve") @PathVariable Integer id) {
+            @Parameter(description = "ID of the product to retrieve") @PathVariable Integer id,
+            WebRequest webRequest) {
+        // Check the modification stamp first so an unchanged product is never loaded
+        LocalDateTime lastModified = productService.getLastModified(id);
+        if (lastModified != null && webRequest.checkNotModified(
+                ProductETags.forProduct(id, lastModified), ProductETags.epochMillis(lastModified))) {
+            return null; // 304 and headers already set by checkNotModified
+        }
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
@@ -75,18 +143,50 @@ public class ProductController {
         );
     }
 
-    @Operation(summary = "Get all items of a specific product")
+    @Operation(summary = "Create many products in one transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Products created successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content)
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<ProductResponse>> createBatch(
+            @Parameter(description = "Products to create") @Valid @RequestBody ProductBatchRequest request) {
+        return new ResponseEntity<>(
+                productService.createProducts(request.getProducts()),
+                HttpStatus.CREATED
+        );
+    }
+
+    @Operation(summary = "Get a page of the items of a specific product",
+            description = "Items are ordered by ID. The X-Has-Next header tells whether a further page exists.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Items retrieved successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ItemResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Items unchanged since the given ETag or date", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid 'page' or 'size'", content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
     })
     @GetMapping("/{id}/items")
     public ResponseEntity<List<ItemResponse>> getItems(
-            @Parameter(description = "ID of the product") @PathVariable Integer id) {
-        ProductResponse productResponse = productService.getProductById(id);
-        return ResponseEntity.ok(productResponse.getItems());
+            @Parameter(description = "ID of the product") @PathVariable Integer id,
+            @Parameter(description = "Page number (starts from 0)") @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+            @Parameter(description = "Number of items per page (1 to 1000)")
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+            WebRequest webRequest) {
+        // Items only change through product updates, which bump the product's stamp
+        LocalDateTime lastModified = productService.getLastModified(id);
+        if (lastModified != null && webRequest.checkNotModified(
+                ProductETags.forItems(id, lastModified, page, size), ProductETags.epochMillis(lastModified))) {
+            return null;
+        }
+        Slice<ItemResponse> items = productService.getItemsByProductId(id, PageRequest.of(page, size));
+        return ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(items.hasNext()))
+                .body(items.getContent());
     }
 
     @Operation(summary = "Update an existing product")
@@ -118,4 +218,24 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Delete several products by ID",
+            description = "Removes the products and their items with set-based statements. Unknown ids are ignored.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products deleted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkDeleteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Missing ids or more than 1000 ids", content = @Content)
+    })
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(
+            @Parameter(description = "Comma-separated IDs of the products to delete")
+            @RequestParam @Size(min = 1, max = 1000) List<Integer> ids) {
+        int deleted = productService.deleteProducts(ids);
+        return ResponseEntity.ok(BulkDeleteResponse.builder()
+                .requested(ids.size())
+                .deleted(deleted)
+                .build());
+    }
+}
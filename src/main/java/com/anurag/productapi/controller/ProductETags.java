@@ -0,0 +1,57 @@
+package com.anurag.productapi.controller;
+
+import com.anurag.productapi.dto.response.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoField;
+import java.util.List;
+
+/**
+ * Strong entity tags for product representations, derived from the products'
+ * modification stamps (modifiedOn, or createdOn for never-modified products).
+ */
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String forProduct(Integer id, LocalDateTime lastModified) {
+        return "\"p" + id + "-" + stamp(lastModified) + "\"";
+    }
+
+    static String forItems(Integer id, LocalDateTime lastModified, int page, int size) {
+        return "\"i" + id + "-" + stamp(lastModified) + "-" + page + "-" + size + "\"";
+    }
+
+    static String forPage(Page<ProductResponse> page) {
+        return forList(page.getNumber() + "|" + page.getSize() + "|" + page.getTotalElements(), page.getContent());
+    }
+
+    static String forList(String prefix, List<ProductResponse> products) {
+        StringBuilder source = new StringBuilder(prefix);
+        for (ProductResponse product : products) {
+            source.append('|').append(product.getId()).append(':').append(stamp(lastModified(product)));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long epochMillis(LocalDateTime lastModified) {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime lastModified(ProductResponse product) {
+        return product.getModifiedOn() != null ? product.getModifiedOn() : product.getCreatedOn();
+    }
+
+    private static String stamp(LocalDateTime lastModified) {
+        if (lastModified == null) {
+            return "0";
+        }
+        long micros = epochMillis(lastModified) * 1000 + lastModified.get(ChronoField.MICRO_OF_SECOND) % 1000;
+        return Long.toHexString(micros);
+    }
+}
@@ -0,0 +1,44 @@
+package com.anurag.productapi.controller;
+
+import com.anurag.productapi.enums.ExportFormat;
+import com.anurag.productapi.service.ProductExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ProductExportController {
+
+    private final ProductExportService productExportService;
+
+    @Operation(summary = "Export the whole product catalog",
+            description = "Streams every product and its items. NDJSON writes one product per line, "
+                    + "CSV writes one item per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog streamed successfully",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unknown export format", content = @Content)
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Export format: NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        // Written on an async thread straight to the response, never buffered as a whole
+        StreamingResponseBody body = outputStream -> productExportService.exportProducts(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,45 @@
+package com.anurag.productapi.controller;
+
+import com.anurag.productapi.stream.ProductChangeBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ProductStreamController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+
+    @Operation(summary = "Stream product changes as Server-Sent Events",
+            description = "Pushes a '" + ProductChangeBroadcaster.CHANGE_EVENT + "' event for every product create, "
+                    + "update and delete once it is committed; the event id is the change feed sequence number. "
+                    + "Reconnecting with Last-Event-ID (or 'since') first replays the changes missed. A client "
+                    + "that falls too far behind gets a '" + ProductChangeBroadcaster.RESYNC_EVENT + "' event and "
+                    + "the stream ends: reconnect from its 'resumeFrom', or re-read the catalog when it has none.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers, retry after the given delay",
+                    content = @Content)
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Last change sequence number seen; set by EventSource on reconnect")
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) @PositiveOrZero Long lastEventId,
+            @Parameter(description = "Last change sequence number seen, for clients that cannot set headers")
+            @RequestParam(required = false) @PositiveOrZero Long since) {
+        return productChangeBroadcaster.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -0,0 +1,23 @@
+package com.anurag.productapi.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// For creating many products in one request and one transaction
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchRequest {
+    @NotEmpty(message = "Products cannot be empty")
+    @Size(max = 1000, message = "At most 1000 products can be created per batch")
+    @Valid
+    private List<ProductRequest> products;
+}
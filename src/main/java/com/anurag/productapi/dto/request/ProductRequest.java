@@ -1,5 +1,7 @@
 package com.anurag.productapi.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -8,7 +10,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 // For receiving create/update requests
 @Data
@@ -22,11 +26,27 @@ public class ProductRequest {
     @Valid
     private List<ItemRequest> items;
 
+    // An update matches items by id, so each existing item may be named once
+    @JsonIgnore
+    @AssertTrue(message = "Item ids must be unique")
+    public boolean isItemIdsUnique() {
+        if (items == null) {
+            return true;
+        }
+        Set<Integer> ids = new HashSet<>();
+        return items.stream()
+                .filter(item -> item != null && item.getId() != null)
+                .allMatch(item -> ids.add(item.getId()));
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     @Builder
     public static class ItemRequest {
+        // Id of an existing item to update; omit to add a new item
+        private Integer id;
+
         @Min(1)
         private Integer quantity;
     }
@@ -0,0 +1,15 @@
+package com.anurag.productapi.dto.request;
+
+import com.anurag.productapi.enums.Roles;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleChangeRequest {
+    @NotNull(message = "Role is required")
+    private Roles role;
+}
@@ -0,0 +1,15 @@
+package com.anurag.productapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResponse {
+    private int requested;
+    private int deleted;
+}
@@ -0,0 +1,22 @@
+package com.anurag.productapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkheadStatsResponse {
+    private String name;
+    private int poolSize;
+    private int activeCount;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completedCount;
+    private long rejectedCount;
+    private double averageQueueWaitMillis;
+    private double averageExecutionMillis;
+}
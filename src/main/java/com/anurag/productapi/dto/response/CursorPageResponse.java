@@ -0,0 +1,20 @@
+package com.anurag.productapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Keyset page: no total count, just the rows and where to continue from
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    // Opaque cursor for the next page, null on the last page
+    private String next;
+}
@@ -0,0 +1,28 @@
+package com.anurag.productapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxStatsResponse {
+    private String name;
+    // Waiting in the outbox table, including those being delivered
+    private long pendingCount;
+    private long failedCount;
+    // Age of the oldest pending notification, 0 when none are pending
+    private long lagMillis;
+    private int inFlight;
+    private int maxInFlight;
+    // Counters since startup; throughput is their rate of change
+    private long deliveredCount;
+    private long retriedCount;
+    private long gaveUpCount;
+    // Claims dropped unsent because their lease ran out while they waited for a worker
+    private long expiredLeaseCount;
+    private double averageDeliveryMillis;
+}
@@ -0,0 +1,21 @@
+package com.anurag.productapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One batch of the product change feed, in sequence order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeFeedResponse {
+    private List<ProductChangeResponse> changes;
+    // Pass as 'since' on the next call; equals the request's 'since' when there was nothing new
+    private long next;
+    // True when the batch was full, so more changes can be read right away
+    private boolean hasMore;
+}
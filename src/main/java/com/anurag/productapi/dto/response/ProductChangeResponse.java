@@ -0,0 +1,20 @@
+package com.anurag.productapi.dto.response;
+
+import com.anurag.productapi.enums.ProductChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeResponse {
+    private long seq;
+    private Integer productId;
+    private ProductChangeOperation operation;
+    private Instant changedAt;
+}
@@ -18,5 +18,6 @@ public class ProductResponse {
     private String createdBy;
     private String modifiedBy;
     private LocalDateTime createdOn;
+    private LocalDateTime modifiedOn;
     private List<ItemResponse> items;
 }
\ No newline at end of file
@@ -6,11 +6,14 @@ import lombok.*;
 
 @Entity
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_product_id", columnList = "product_id, id")
+})
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne
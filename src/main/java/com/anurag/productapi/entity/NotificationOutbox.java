@@ -0,0 +1,47 @@
+package com.anurag.productapi.entity;
+
+import com.anurag.productapi.enums.NotificationType;
+import com.anurag.productapi.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+@Table(name = "notification_outbox", indexes = {
+        // Serves the dispatcher's poll for due notifications
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class NotificationOutbox {
+
+    // Written in the transaction that causes the notification; deleted once delivered
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationType type;
+
+    @Column(nullable = false, length = 100)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Claimed notifications are pushed past their lease, so a crashed delivery is retried
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
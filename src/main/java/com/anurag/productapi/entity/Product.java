@@ -13,12 +13,15 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Table(name = "product", indexes = {
-        @Index(name = "idx_product_name", columnList = "product_name")
+        @Index(name = "idx_product_name", columnList = "product_name"),
+        @Index(name = "idx_product_created_on_id", columnList = "created_on, id")
 })
 public class Product {
 
+    // Pooled sequence so ids are preallocated and inserts can be batched (IDENTITY can't batch)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "product_name", nullable = false)
@@ -0,0 +1,32 @@
+package com.anurag.productapi.entity;
+
+import com.anurag.productapi.enums.ProductChangeOperation;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+@Table(name = "product_change")
+public class ProductChange {
+
+    // Appended in the transaction of every product write; the feed reads it in seq order.
+    // IDENTITY rather than a pooled sequence: pooled blocks would hand one instance's writes
+    // numbers far below another's, and the feed relies on seq following insert order
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    // No foreign key: deletions are recorded too
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -7,14 +7,26 @@ import java.time.Instant;
 
 @Entity
 @Data @NoArgsConstructor @AllArgsConstructor @Builder
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = {
+        // Serves the expired-token purge
+        @Index(name = "idx_refresh_token_expiry_date", columnList = "expiry_date"),
+        // Serves session listing and revocation per user
+        @Index(name = "idx_refresh_token_user_id", columnList = "user_id")
+})
 public class RefreshToken {
 
+    // One row per login session: the id stays the same across rotations, only token hash and expiry change
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // SHA-256 of the token handed to the client; the token itself is never stored
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+
+    // The raw token, only known right after it was issued or presented
+    @Transient
     private String token;
 
     @Column(nullable = false)
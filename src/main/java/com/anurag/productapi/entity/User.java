@@ -22,4 +22,9 @@ public class User {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Roles role;   //
+
+    // Embedded in access tokens as the "ver" claim; bumping it invalidates every token issued before.
+    // Nullable so existing rows need no backfill: null means version 0.
+    @Column(name = "token_version")
+    private Long tokenVersion;
 }
\ No newline at end of file
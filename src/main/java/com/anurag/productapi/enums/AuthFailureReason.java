@@ -0,0 +1,6 @@
+package com.anurag.productapi.enums;
+
+public enum AuthFailureReason {
+    INVALID_TOKEN,
+    REVOKED_TOKEN
+}
@@ -0,0 +1,5 @@
+package com.anurag.productapi.enums;
+
+public enum NotificationType {
+    WELCOME_EMAIL
+}
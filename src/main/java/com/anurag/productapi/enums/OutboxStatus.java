@@ -0,0 +1,8 @@
+package com.anurag.productapi.enums;
+
+public enum OutboxStatus {
+    // Waiting for delivery, or for its next attempt
+    PENDING,
+    // Gave up after the maximum number of attempts; kept for inspection
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.anurag.productapi.enums;
+
+public enum ProductChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
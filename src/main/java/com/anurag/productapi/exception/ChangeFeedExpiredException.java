@@ -0,0 +1,19 @@
+package com.anurag.productapi.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a change feed consumer asks for changes that were already compacted away.
+ * Mapped to 410: the consumer has to re-read the catalog and then follow the feed again.
+ */
+@Getter
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    private final long resumeFrom;
+
+    public ChangeFeedExpiredException(long since, long oldestRetained) {
+        super(String.format("Changes after sequence %d were compacted; re-read the catalog and resume from sequence %d",
+                since, oldestRetained - 1));
+        this.resumeFrom = oldestRetained - 1;
+    }
+}
@@ -36,6 +36,7 @@ public class ProductMapper {
                 .createdBy(product.getCreatedBy())
                 .createdOn(product.getCreatedOn())       // <-- Add this
                 .modifiedBy(product.getModifiedBy())
+                .modifiedOn(product.getModifiedOn())
                 .items(items)
                 .build();
     }
@@ -0,0 +1,213 @@
+package com.anurag.productapi.observability;
+
+import com.anurag.productapi.enums.AuthFailureReason;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request latency histograms per handler and status, plus counters of authentication failures and handled
+ * exceptions, exposed in the Prometheus text format.
+ * <p>
+ * Latencies go into HdrHistogram {@link Recorder}s: recording is wait-free and allocates nothing once a
+ * handler and status have been seen, and a scrape swaps each recorder's active histogram for an empty one.
+ * Quantiles and max therefore cover the interval since the previous scrape, while count and sum are
+ * cumulative counters kept next to the recorder, so they advance together whoever scrapes; with several
+ * scrapers, each sees only part of the intervals. Latencies above
+ * {@code maxMs} are recorded as {@code maxMs}.
+ */
+@Component
+public class RequestMetrics {
+
+    public static final String UNMATCHED_HANDLER = "unmatched";
+
+    private static final int MAX_STATUS = 599;
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final double MICROS_PER_SECOND = TimeUnit.SECONDS.toMicros(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+
+    private final Map<Method, HandlerSeries> handlers = new ConcurrentHashMap<>();
+    private final HandlerSeries unmatched;
+    private final LongAdder[] authFailures = new LongAdder[AuthFailureReason.values().length];
+    private final Map<Class<?>, ExceptionSeries> exceptions = new ConcurrentHashMap<>();
+
+    public RequestMetrics(@Value("${app.metrics.latency.maxMs}") long maxMs,
+                          @Value("${app.metrics.latency.significantDigits}") int significantDigits) {
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(maxMs);
+        this.significantDigits = significantDigits;
+        this.unmatched = new HandlerSeries(UNMATCHED_HANDLER);
+        for (int i = 0; i < authFailures.length; i++) {
+            authFailures[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one request served by {@code handler}; requests that reached no handler method (security
+     * rejections, unknown paths) are recorded as {@value #UNMATCHED_HANDLER}.
+     */
+    public void recordRequest(Object handler, int status, long elapsedNanos) {
+        HandlerSeries series = unmatched;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Method method = handlerMethod.getMethod();
+            series = handlers.get(method); // Allocation-free on the common path, unlike computeIfAbsent's lambda
+            if (series == null) {
+                series = handlers.computeIfAbsent(method, key -> new HandlerSeries(handlerName(handlerMethod)));
+            }
+        }
+        series.statusSeries(status < 0 || status > MAX_STATUS ? 0 : status).record(elapsedNanos);
+    }
+
+    public void recordAuthFailure(AuthFailureReason reason) {
+        authFailures[reason.ordinal()].increment();
+    }
+
+    /**
+     * Counts an exception turned into an error response with {@code status}.
+     */
+    public void recordException(Throwable exception, int status) {
+        Class<?> type = exception.getClass();
+        ExceptionSeries series = exceptions.get(type);
+        if (series == null) {
+            series = exceptions.computeIfAbsent(type, key -> new ExceptionSeries(key.getSimpleName(), status));
+        }
+        series.count.increment();
+    }
+
+    /**
+     * Renders every series in the Prometheus text exposition format (version 0.0.4), starting a new
+     * interval for the latency quantiles.
+     */
+    public synchronized String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        HandlerSeries[] allHandlers = handlers.values().toArray(HandlerSeries[]::new);
+        Arrays.sort(allHandlers, Comparator.comparing(series -> series.name));
+
+        out.append("# HELP http_server_requests_seconds Request latency by handler and status; quantiles cover the interval since the previous scrape\n");
+        out.append("# TYPE http_server_requests_seconds summary\n");
+        StringBuilder maxLines = new StringBuilder();
+        for (HandlerSeries handler : allHandlers) {
+            writeLatencies(out, maxLines, handler);
+        }
+        writeLatencies(out, maxLines, unmatched);
+        out.append("# HELP http_server_requests_seconds_max Slowest request by handler and status since the previous scrape\n");
+        out.append("# TYPE http_server_requests_seconds_max gauge\n");
+        out.append(maxLines);
+
+        out.append("# HELP auth_failures_total Requests rejected by the access token filter\n");
+        out.append("# TYPE auth_failures_total counter\n");
+        for (AuthFailureReason reason : AuthFailureReason.values()) {
+            out.append("auth_failures_total{reason=\"").append(reason.name().toLowerCase(Locale.ROOT)).append("\"} ")
+                    .append(authFailures[reason.ordinal()].sum()).append('\n');
+        }
+
+        out.append("# HELP http_server_exceptions_total Exceptions turned into error responses\n");
+        out.append("# TYPE http_server_exceptions_total counter\n");
+        exceptions.values().stream()
+                .sorted(Comparator.comparing(series -> series.name))
+                .forEach(series -> out.append("http_server_exceptions_total{exception=\"").append(series.name)
+                        .append("\",status=\"").append(series.status).append("\"} ")
+                        .append(series.count.sum()).append('\n'));
+        return out.toString();
+    }
+
+    private void writeLatencies(StringBuilder out, StringBuilder maxLines, HandlerSeries handler) {
+        for (int status = 0; status <= MAX_STATUS; status++) {
+            StatusSeries series = handler.byStatus.get(status);
+            if (series == null) {
+                continue;
+            }
+            Histogram interval = series.nextInterval();
+            String labels = "handler=\"" + handler.name + "\",status=\"" + status + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("http_server_requests_seconds{").append(labels).append(",quantile=\"").append(quantile)
+                        .append("\"} ").append(intervalSeconds(interval, interval.getValueAtPercentile(quantile * 100)))
+                        .append('\n');
+            }
+            out.append("http_server_requests_seconds_count{").append(labels).append("} ")
+                    .append(series.count.sum()).append('\n');
+            out.append("http_server_requests_seconds_sum{").append(labels).append("} ")
+                    .append(series.totalNanos.sum() / NANOS_PER_SECOND).append('\n');
+            maxLines.append("http_server_requests_seconds_max{").append(labels).append("} ")
+                    .append(intervalSeconds(interval, interval.getMaxValue())).append('\n');
+        }
+    }
+
+    // No requests in the interval: no quantiles either
+    private static String intervalSeconds(Histogram interval, long micros) {
+        return interval.getTotalCount() == 0 ? "NaN" : String.valueOf(micros / MICROS_PER_SECOND);
+    }
+
+    private static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    private final class HandlerSeries {
+        private final String name;
+        private final AtomicReferenceArray<StatusSeries> byStatus = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+        private HandlerSeries(String name) {
+            this.name = name;
+        }
+
+        private StatusSeries statusSeries(int status) {
+            StatusSeries series = byStatus.get(status);
+            if (series == null) {
+                // A recorder holds two histograms of about 20 KB, so only statuses actually returned get one
+                StatusSeries created = new StatusSeries(new Recorder(highestTrackableMicros, significantDigits));
+                series = byStatus.compareAndSet(status, null, created) ? created : byStatus.get(status);
+            }
+            return series;
+        }
+    }
+
+    private final class StatusSeries {
+        private final Recorder recorder;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        // Read side, guarded by scrape()
+        private Histogram recycled;
+
+        private StatusSeries(Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        private void record(long elapsedNanos) {
+            long micros = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), highestTrackableMicros));
+            recorder.recordValue(micros);
+            count.increment();
+            totalNanos.add(elapsedNanos);
+        }
+
+        private Histogram nextInterval() {
+            Histogram interval = recorder.getIntervalHistogram(recycled);
+            recycled = interval;
+            return interval;
+        }
+    }
+
+    private static final class ExceptionSeries {
+        private final String name;
+        private final int status;
+        private final LongAdder count = new LongAdder();
+
+        private ExceptionSeries(String name, int status) {
+            this.name = name;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.anurag.productapi.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the JDBC statements each request executes on the request thread.
+ * <p>
+ * When enabled, the counts are returned in the {@value #COUNT_HEADER} and {@value #TIME_HEADER} headers.
+ * Requests issuing more statements than their handler's budget are logged. Budgets are keyed by
+ * {@code Controller.method} (e.g. {@code ProductController.getAll}) and fall back to a default.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-SQL-Count";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final boolean exposeHeaders;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+
+    public SqlStatementCountFilter(@Value("${app.sql.exposeHeaders}") boolean exposeHeaders,
+                                   @Value("${app.sql.defaultBudget}") int defaultBudget,
+                                   @Value("${app.sql.budgets}") String budgets) {
+        this.exposeHeaders = exposeHeaders;
+        this.defaultBudget = defaultBudget;
+        this.budgets = parseBudgets(budgets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementStats start = SqlStatementCounter.current();
+        HttpServletResponse target = exposeHeaders ? new StatsHeaderResponse(response, start) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlStatementStats stats = SqlStatementCounter.current().since(start);
+            // Responses without a body are only committed after the chain returns
+            if (exposeHeaders && !response.isCommitted()) {
+                writeHeaders(response, stats);
+            }
+            checkBudget(request, stats);
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementStats stats) {
+        String handler = handlerName(request);
+        int budget = handler != null ? budgets.getOrDefault(handler, defaultBudget) : defaultBudget;
+        if (stats.statements() > budget) {
+            log.warn("SQL budget exceeded by {} {} ({}): {} statements in {} ms, budget {}",
+                    request.getMethod(), request.getRequestURI(), handler,
+                    stats.statements(), stats.elapsedMillis(), budget);
+        }
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatementStats stats) {
+        response.setHeader(COUNT_HEADER, String.valueOf(stats.statements()));
+        response.setHeader(TIME_HEADER, String.valueOf(stats.elapsedMillis()));
+    }
+
+    // "ProductController.getAll:3,ProductController.getById:2"
+    private static Map<String, Integer> parseBudgets(String budgets) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(budgets)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid SQL budget entry: " + entry);
+            }
+            parsed.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * Writes the statement headers just before the body starts, i.e. after the handler has run.
+     */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats start;
+        private boolean headersWritten;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlStatementStats start) {
+            super(response);
+            this.start = start;
+        }
+
+        private void writeHeadersOnce() {
+            if (!headersWritten && !isCommitted()) {
+                headersWritten = true;
+                writeHeaders(this, SqlStatementCounter.current().since(start));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeadersOnce();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeadersOnce();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeadersOnce();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeadersOnce();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeadersOnce();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.anurag.productapi.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts JDBC statements executed on the current thread, and the time spent in them.
+ * <p>
+ * The tally only ever grows; callers take a {@link #current()} snapshot before a unit of work and
+ * subtract it afterwards, so nested measurements (a request inside a test) do not disturb each other.
+ * A JDBC batch counts as one statement because it is one round trip.
+ */
+public final class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Tally> TALLY = ThreadLocal.withInitial(Tally::new);
+
+    public static SqlStatementStats current() {
+        Tally tally = TALLY.get();
+        return new SqlStatementStats(tally.statements, tally.elapsedNanos);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        TALLY.get().startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tally tally = TALLY.get();
+        tally.statements++;
+        tally.elapsedNanos += System.nanoTime() - tally.startedAt;
+    }
+
+    private static final class Tally {
+        private long statements;
+        private long elapsedNanos;
+        private long startedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.anurag.productapi.observability;
+
+/**
+ * Number of JDBC statements executed and the time spent in them.
+ */
+public record SqlStatementStats(long statements, long elapsedNanos) {
+
+    /**
+     * Returns what was executed since {@code earlier}, which must come from the same thread.
+     */
+    public SqlStatementStats since(SqlStatementStats earlier) {
+        return new SqlStatementStats(statements - earlier.statements, elapsedNanos - earlier.elapsedNanos);
+    }
+
+    public long elapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
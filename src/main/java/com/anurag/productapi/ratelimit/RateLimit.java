@@ -0,0 +1,25 @@
+package com.anurag.productapi.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sustained rate and how many requests may arrive at once, in the form the GCRA works with:
+ * the interval between requests at the sustained rate and how far ahead of schedule a client may run.
+ *
+ * @param emissionIntervalNanos nanoseconds per request at the sustained rate
+ * @param toleranceNanos        how far the theoretical arrival time may run ahead of now
+ */
+public record RateLimit(long emissionIntervalNanos, long toleranceNanos) {
+
+    /**
+     * @param permitsPerSecond sustained requests per second
+     * @param burst            requests allowed back to back, at least 1
+     */
+    public static RateLimit of(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and a burst of at least 1");
+        }
+        long emissionInterval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        return new RateLimit(emissionInterval, emissionInterval * (burst - 1));
+    }
+}
@@ -0,0 +1,190 @@
+package com.anurag.productapi.ratelimit;
+
+import com.anurag.productapi.enums.Roles;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting, placed in the security chain right after {@code AuthTokenFilter}.
+ * <p>
+ * Clients are the authenticated user, or the client IP for {@code /api/v1/auth/**} and unauthenticated
+ * requests. Reads (GET, HEAD, OPTIONS) and writes draw from separate buckets with separate limits per
+ * role; clients keyed by IP use the {@value #ANONYMOUS} limits. Limited requests get 429 with Retry-After.
+ * <p>
+ * Requests with an access token that fails verification never get this far, so {@code AuthTokenFilter} charges
+ * them to a separate {@value #ANONYMOUS} budget of their client IP ({@link #rejectInvalidToken}). Only failed
+ * tokens touch it: valid tokens from the same address, e.g. other users behind a shared proxy, are unaffected.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String ANONYMOUS = "ANONYMOUS";
+
+    private static final String AUTH_PATH_PREFIX = "/api/v1/auth/";
+    private static final String INVALID_TOKEN_CLIENT_PREFIX = "invalid-token:ip:";
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final Map<String, RateLimit> readLimits;
+    private final Map<String, RateLimit> writeLimits;
+
+    record BucketKey(String client, boolean write) {
+    }
+
+    @Autowired
+    public RateLimitFilter(@Value("${app.rateLimit.enabled}") boolean enabled,
+                           @Value("${app.rateLimit.readPerSecond}") String readPerSecond,
+                           @Value("${app.rateLimit.writePerSecond}") String writePerSecond,
+                           @Value("${app.rateLimit.burstSeconds}") double burstSeconds,
+                           @Value("${app.rateLimit.maxClients}") long maxClients,
+                           @Value("${app.rateLimit.idleEvictionMs}") long idleEvictionMs) {
+        this(new RateLimiter(maxClients, Duration.ofMillis(idleEvictionMs)), enabled, readPerSecond, writePerSecond,
+                burstSeconds);
+    }
+
+    RateLimitFilter(RateLimiter rateLimiter, boolean enabled, String readPerSecond, String writePerSecond,
+                    double burstSeconds) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.readLimits = parseLimits(readPerSecond, burstSeconds);
+        this.writeLimits = parseLimits(writePerSecond, burstSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean write = !isRead(request.getMethod());
+        Map<String, RateLimit> limits = write ? writeLimits : readLimits;
+
+        String client;
+        String limitKey;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (request.getRequestURI().startsWith(AUTH_PATH_PREFIX) || !isAuthenticated(authentication)) {
+            // Logins and signups have no user yet; one address must not get a budget per username it tries
+            client = "ip:" + request.getRemoteAddr();
+            limitKey = ANONYMOUS;
+        } else {
+            client = "user:" + authentication.getName();
+            limitKey = role(authentication);
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(new BucketKey(client, write), limits.get(limitKey));
+        if (waitNanos > 0) {
+            writeTooManyRequests(response, waitNanos);
+            return; // Stop the chain
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Charges a request whose access token failed verification to its client IP's budget for invalid tokens,
+     * and answers 429 once that budget is used up, so a client looping on a bad token is told to back off.
+     *
+     * @return whether the request was rejected; otherwise the caller answers 401
+     */
+    public boolean rejectInvalidToken(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        long waitNanos = rateLimiter.tryAcquire(invalidTokenKey(request), invalidTokenLimit(request));
+        if (waitNanos > 0) {
+            writeTooManyRequests(response, waitNanos);
+            return true;
+        }
+        return false;
+    }
+
+    private static BucketKey invalidTokenKey(HttpServletRequest request) {
+        return new BucketKey(INVALID_TOKEN_CLIENT_PREFIX + request.getRemoteAddr(), !isRead(request.getMethod()));
+    }
+
+    private RateLimit invalidTokenLimit(HttpServletRequest request) {
+        return (isRead(request.getMethod()) ? readLimits : writeLimits).get(ANONYMOUS);
+    }
+
+    private static void writeTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        // Rounded up, so a client that honours it is admitted
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in "
+                + retryAfterSeconds + " s\"}");
+    }
+
+    /**
+     * Parses {@code ANONYMOUS:20,USER:100,ADMIN:500} (requests per second) into limits with a burst of
+     * {@code burstSeconds} worth of requests. Every role and {@value #ANONYMOUS} must be present.
+     */
+    static Map<String, RateLimit> parseLimits(String perSecond, double burstSeconds) {
+        Map<String, RateLimit> parsed = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(perSecond)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid rate limit entry: " + entry);
+            }
+            double permitsPerSecond = Double.parseDouble(parts[1].trim());
+            int burst = (int) Math.max(1, Math.round(permitsPerSecond * burstSeconds));
+            parsed.put(parts[0].trim(), RateLimit.of(permitsPerSecond, burst));
+        }
+
+        if (!parsed.containsKey(ANONYMOUS)) {
+            throw new IllegalArgumentException("Missing rate limit for " + ANONYMOUS + " in: " + perSecond);
+        }
+        for (Roles role : Roles.values()) {
+            if (!parsed.containsKey(role.name())) {
+                throw new IllegalArgumentException("Missing rate limit for " + role + " in: " + perSecond);
+            }
+        }
+        return parsed;
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    // The authority AuthTokenFilter grants, e.g. ROLE_ADMIN -> ADMIN
+    private static String role(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (Roles role : Roles.values()) {
+                if (role.getAuthority().equals(authority.getAuthority())) {
+                    return role.name();
+                }
+            }
+        }
+        return ANONYMOUS;
+    }
+}
@@ -0,0 +1,64 @@
+package com.anurag.productapi.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiting with the generic cell rate algorithm (GCRA).
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the client's theoretical arrival time, advanced
+ * with compare-and-set, so admitting a request takes no lock and clients never contend with each
+ * other. Buckets live in a bounded Caffeine cache and are evicted once idle; an idle bucket is full
+ * again anyway, so eviction forgets nothing.
+ */
+public class RateLimiter {
+
+    private final Cache<Object, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(long maxClients, Duration idleEviction) {
+        this(maxClients, idleEviction, System::nanoTime);
+    }
+
+    RateLimiter(long maxClients, Duration idleEviction, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleEviction)
+                .ticker(nanoClock::getAsLong)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one request from the bucket of {@code key}.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(Object key, RateLimit limit) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long stored = bucket.get();
+            // A bucket that fell behind now has refilled completely; compared by difference since nanoTime may wrap
+            long arrival = stored - now > 0 ? stored : now;
+            long wait = arrival - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(stored, arrival + limit.emissionIntervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
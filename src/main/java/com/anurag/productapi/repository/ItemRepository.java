@@ -1,6 +1,25 @@
 package com.anurag.productapi.repository;
 
+import com.anurag.productapi.dto.response.ItemResponse;
 import com.anurag.productapi.entity.Item;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Integer> {}
+import java.util.Collection;
+
+public interface ItemRepository extends JpaRepository<Item, Integer> {
+
+    // Projection straight from the item table: no Product or Item entities are loaded
+    @Query("select new com.anurag.productapi.dto.response.ItemResponse(i.id, i.quantity)"
+            + " from Item i where i.product.id = :productId order by i.id")
+    Slice<ItemResponse> findItemsByProductId(@Param("productId") Integer productId, Pageable pageable);
+
+    // Set-based delete: one statement regardless of how many items the products own
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Item i where i.product.id in :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Integer> productIds);
+}
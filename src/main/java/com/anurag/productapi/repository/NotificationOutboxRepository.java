@@ -0,0 +1,44 @@
+package com.anurag.productapi.repository;
+
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Range scan on idx_notification_outbox_status_next_attempt. FOR UPDATE SKIP LOCKED: concurrent pollers
+    // (other threads or instances) claim disjoint rows instead of the same ones or waiting for each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from NotificationOutbox n where n.status = :status and n.nextAttemptAt <= :now"
+            + " order by n.nextAttemptAt")
+    List<NotificationOutbox> findDue(@Param("status") OutboxStatus status, @Param("now") Instant now, Limit limit);
+
+    // Moves the lease only while the row still holds the claim that ended at claimedUntil
+    @Modifying(flushAutomatically = true)
+    @Query("update NotificationOutbox n set n.nextAttemptAt = :leaseUntil"
+            + " where n.id = :id and n.status = :status and n.nextAttemptAt = :claimedUntil")
+    int renewLease(@Param("id") Long id, @Param("status") OutboxStatus status,
+                   @Param("claimedUntil") Instant claimedUntil, @Param("leaseUntil") Instant leaseUntil);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("select min(n.createdAt) from NotificationOutbox n where n.status = :status")
+    Instant findOldestCreatedAt(@Param("status") OutboxStatus status);
+
+    // By primary key, without loading the row first
+    @Modifying
+    @Query("delete from NotificationOutbox n where n.id = :id")
+    int deleteDelivered(@Param("id") Long id);
+}
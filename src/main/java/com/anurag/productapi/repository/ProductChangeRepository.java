@@ -0,0 +1,51 @@
+package com.anurag.productapi.repository;
+
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.entity.ProductChange;
+import com.anurag.productapi.enums.ProductChangeOperation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // One statement however many products, and only for ids that exist; flushes pending product inserts first
+    @Modifying(flushAutomatically = true)
+    @Query("insert into ProductChange (productId, operation, changedAt)"
+            + " select p.id, :operation, :changedAt from Product p where p.id in :ids")
+    int appendForProducts(@Param("ids") Collection<Integer> ids,
+                          @Param("operation") ProductChangeOperation operation,
+                          @Param("changedAt") Instant changedAt);
+
+    // The rows appendForProducts just wrote, to learn their sequence numbers: an insert-select returns none.
+    // Read straight into responses, so they are never managed entities
+    @Query("select new com.anurag.productapi.dto.response.ProductChangeResponse("
+            + "c.seq, c.productId, c.operation, c.changedAt) from ProductChange c"
+            + " where c.productId in :ids and c.operation = :operation and c.changedAt = :changedAt order by c.seq")
+    List<ProductChangeResponse> findAppended(@Param("ids") Collection<Integer> ids,
+                                     @Param("operation") ProductChangeOperation operation,
+                                     @Param("changedAt") Instant changedAt);
+
+    // Range scan on the primary key
+    @Query("select c from ProductChange c where c.seq > :since order by c.seq")
+    List<ProductChange> findAfter(@Param("since") long since, Limit limit);
+
+    boolean existsBySeqLessThanEqual(long seq);
+
+    @Query("select coalesce(max(c.seq), 0) from ProductChange c")
+    long findLatestSeq();
+
+    // Walks the primary key from the oldest change, so it stops after the batch
+    @Query("select c.seq from ProductChange c where c.changedAt < :cutoff order by c.seq")
+    List<Long> findSeqsChangedBefore(@Param("cutoff") Instant cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from ProductChange c where c.seq < :seq")
+    int deleteBefore(@Param("seq") long seq);
+}
@@ -1,6 +1,61 @@
 package com.anurag.productapi.repository;
 
 import com.anurag.productapi.entity.Product;
+import com.anurag.productapi.repository.projection.ProductExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {}
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Integer> {
+
+    // Pages over ids only, so the page query never touches the item table
+    @Query(value = "select p.id from Product p",
+            countQuery = "select count(p) from Product p")
+    Page<Integer> findPageOfIds(Pageable pageable);
+
+    // Keyset listing: seek on (created_on, id), served by idx_product_created_on_id, no count query
+    @Query("select p.id from Product p order by p.createdOn asc, p.id asc")
+    List<Integer> findFirstIdsByCreatedOn(Limit limit);
+
+    @Query("select p.id from Product p"
+            + " where p.createdOn > :createdOn or (p.createdOn = :createdOn and p.id > :id)"
+            + " order by p.createdOn asc, p.id asc")
+    List<Integer> findIdsByCreatedOnAfter(@Param("createdOn") LocalDateTime createdOn,
+                                          @Param("id") Integer id,
+                                          Limit limit);
+
+    // Modification stamp for conditional requests, read without loading the product or its items
+    @Query("select coalesce(p.modifiedOn, p.createdOn) from Product p where p.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Integer id);
+
+    // Whole catalog for export through a forward-only cursor: one row per product/item pair
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.anurag.productapi.repository.projection.ProductExportRow("
+            + "p.id, p.productName, p.createdBy, p.createdOn, p.modifiedBy, p.modifiedOn, i.id, i.quantity)"
+            + " from Product p left join p.items i order by p.id, i.id")
+    Stream<ProductExportRow> streamExportRows();
+
+    @Query("select distinct p from Product p left join fetch p.items where p.id in :ids")
+    List<Product> findAllWithItemsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Bypasses the cascade, so the items must already be gone (ItemRepository.deleteByProductIdIn)
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Product p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+}
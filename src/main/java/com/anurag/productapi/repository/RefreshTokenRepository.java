@@ -3,11 +3,44 @@ package com.anurag.productapi.repository;
 
 import com.anurag.productapi.entity.RefreshToken;
 import com.anurag.productapi.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    void deleteByUser(User user);
-}
\ No newline at end of file
+    // Unique index on the fixed-width digest
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    // Set-based: one statement instead of loading and deleting each token of the user
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user")
+    void deleteByUser(@Param("user") User user);
+
+    // Each row is one session; newest first so the oldest are the ones trimmed past the session cap
+    @Query("select t.id from RefreshToken t where t.user = :user order by t.id desc")
+    List<Long> findSessionIdsNewestFirst(@Param("user") User user);
+
+    // Compare-and-set on the presented token's digest: of two concurrent refreshes of one session only one matches
+    @Modifying(clearAutomatically = true)
+    @Query("update RefreshToken t set t.tokenHash = :newHash, t.expiryDate = :expiryDate"
+            + " where t.id = :sessionId and t.tokenHash = :currentHash")
+    int rotate(@Param("sessionId") Long sessionId,
+               @Param("currentHash") byte[] currentHash,
+               @Param("newHash") byte[] newHash,
+               @Param("expiryDate") Instant expiryDate);
+
+    // Range scan on idx_refresh_token_expiry_date
+    @Query("select t.id from RefreshToken t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -2,9 +2,21 @@ package com.anurag.productapi.repository;
 
 import com.anurag.productapi.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // Current token version only, without loading the user
+    @Query("select coalesce(u.tokenVersion, 0) from User u where u.username = :username")
+    Optional<Long> findTokenVersionByUsername(@Param("username") String username);
+
+    // Touches only the password column, so a stale copy of the user can't overwrite role or token version
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -0,0 +1,20 @@
+package com.anurag.productapi.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// One product/item pair of the catalog export; item columns are null for products without items
+@Getter
+@AllArgsConstructor
+public class ProductExportRow {
+    private Integer productId;
+    private String productName;
+    private String createdBy;
+    private LocalDateTime createdOn;
+    private String modifiedBy;
+    private LocalDateTime modifiedOn;
+    private Integer itemId;
+    private Integer quantity;
+}
@@ -0,0 +1,203 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.dto.response.OutboxStatsResponse;
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.OutboxStatus;
+import com.anurag.productapi.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers notifications from the outbox table on a small bounded worker pool.
+ * <p>
+ * Every poll claims due notifications in batches of {@code app.notifications.outbox.batchSize}, but never
+ * more than the pool has room for ({@code maxInFlight}); the rest waits in the table, which is the
+ * backpressure. Failed deliveries are retried with exponential backoff up to {@code maxAttempts}.
+ * <p>
+ * Claims skip rows locked by other pollers, and a worker restarts the lease when it picks a notification up,
+ * so {@code leaseMs} only has to cover one send rather than the wait in the queue. A notification that sat
+ * queued past its lease has been claimed again by then, so the worker drops it instead of sending it twice.
+ * Delivery is at least once: a notification whose worker dies is retried once its lease runs out.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxDispatcher {
+
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong gaveUp = new AtomicLong();
+    private final AtomicLong expiredLeases = new AtomicLong();
+    private final AtomicLong deliveryNanos = new AtomicLong();
+
+    public NotificationOutboxDispatcher(NotificationService notificationService,
+                                        @Value("${app.notifications.outbox.batchSize}") int batchSize,
+                                        @Value("${app.notifications.outbox.workerThreads}") int workerThreads,
+                                        @Value("${app.notifications.outbox.maxInFlight}") int maxInFlight,
+                                        @Value("${app.notifications.outbox.leaseMs}") long leaseMs,
+                                        @Value("${app.notifications.outbox.maxAttempts}") int maxAttempts,
+                                        @Value("${app.notifications.outbox.initialBackoffMs}") long initialBackoffMs,
+                                        @Value("${app.notifications.outbox.maxBackoffMs}") long maxBackoffMs) {
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Never more than maxInFlight tasks are submitted, so the queue cannot overflow
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxInFlight),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.pollIntervalMs}",
+            initialDelayString = "${app.notifications.outbox.pollIntervalMs}")
+    public void run() {
+        try {
+            dispatchDue(Instant.now());
+        } catch (RuntimeException e) {
+            // The next poll tries again
+            log.warn("Polling the notification outbox failed", e);
+        }
+    }
+
+    /**
+     * Claims notifications due at {@code now} while the pool has room and hands them to the workers.
+     *
+     * @return the number of notifications claimed
+     */
+    public int dispatchDue(Instant now) {
+        int claimed = 0;
+        while (true) {
+            int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+            if (capacity <= 0) {
+                break;
+            }
+
+            List<NotificationOutbox> batch = notificationService.claimDue(now, capacity, lease);
+            for (NotificationOutbox notification : batch) {
+                inFlight.incrementAndGet();
+                executor.execute(() -> deliver(notification));
+            }
+            claimed += batch.size();
+
+            if (batch.size() < capacity) {
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    public OutboxStatsResponse stats() {
+        Instant oldestPending = notificationService.oldestPendingCreatedAt();
+        long deliveredCount = delivered.get();
+        return OutboxStatsResponse.builder()
+                .name("notificationOutbox")
+                .pendingCount(notificationService.countByStatus(OutboxStatus.PENDING))
+                .failedCount(notificationService.countByStatus(OutboxStatus.FAILED))
+                .lagMillis(oldestPending == null ? 0 : Math.max(0, Duration.between(oldestPending, Instant.now()).toMillis()))
+                .inFlight(inFlight.get())
+                .maxInFlight(maxInFlight)
+                .deliveredCount(deliveredCount)
+                .retriedCount(retried.get())
+                .gaveUpCount(gaveUp.get())
+                .expiredLeaseCount(expiredLeases.get())
+                .averageDeliveryMillis(deliveredCount == 0 ? 0 : deliveryNanos.get() / 1_000_000.0 / deliveredCount)
+                .build();
+    }
+
+    /**
+     * Delay before attempt {@code attempts + 1}: the initial backoff doubled per failed attempt, capped.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Claimed notifications that were not delivered become due again when their lease runs out
+        executor.shutdownNow();
+    }
+
+    private void deliver(NotificationOutbox notification) {
+        long startedAt = System.nanoTime();
+        try {
+            if (!startDelivery(notification)) {
+                return;
+            }
+            notificationService.deliver(notification);
+            notificationService.markDelivered(notification.getId());
+            deliveryNanos.addAndGet(System.nanoTime() - startedAt);
+            delivered.incrementAndGet();
+        } catch (RuntimeException e) {
+            recordFailure(notification, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Renews the lease for this send; false if the notification is no longer ours to send
+    private boolean startDelivery(NotificationOutbox notification) {
+        try {
+            if (notificationService.renewClaim(notification, Instant.now(), lease)) {
+                return true;
+            }
+            log.info("Notification {} was claimed again after its lease ran out, leaving it to that claim",
+                    notification.getId());
+            expiredLeases.incrementAndGet();
+        } catch (RuntimeException e) {
+            // Not attempted, so not a failed attempt: the lease runs out and the notification is retried
+            log.warn("Could not renew the lease of notification {}", notification.getId(), e);
+        }
+        return false;
+    }
+
+    private void recordFailure(NotificationOutbox notification, RuntimeException e) {
+        int attempts = notification.getAttempts() + 1;
+        try {
+            if (attempts >= maxAttempts) {
+                log.error("Giving up on notification {} to {} after {} attempts",
+                        notification.getId(), notification.getRecipient(), attempts, e);
+                notificationService.markFailed(notification.getId(), e.toString(), null);
+                gaveUp.incrementAndGet();
+            } else {
+                log.warn("Notification {} to {} failed (attempt {}), retrying", notification.getId(),
+                        notification.getRecipient(), attempts, e);
+                notificationService.markFailed(notification.getId(), e.toString(), Instant.now().plus(backoff(attempts)));
+                retried.incrementAndGet();
+            }
+        } catch (RuntimeException recordingFailure) {
+            // The lease still expires, so the notification is retried anyway
+            log.error("Could not record the failure of notification {}", notification.getId(), recordingFailure);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.service.ProductChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Periodically deletes product change records older than {@code app.productChanges.retentionMs}.
+ * <p>
+ * Consumers further behind than the retention get 410 from the change feed and re-read the catalog.
+ * Works in batches like {@link RefreshTokenPurgeJob}.
+ */
+@Slf4j
+@Component
+public class ProductChangeCompactionJob {
+
+    private final ProductChangeService productChangeService;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public ProductChangeCompactionJob(ProductChangeService productChangeService,
+                                      @Value("${app.productChanges.retentionMs}") long retentionMs,
+                                      @Value("${app.productChanges.compaction.batchSize}") int batchSize,
+                                      @Value("${app.productChanges.compaction.maxBatchesPerRun}") int maxBatchesPerRun) {
+        this.productChangeService = productChangeService;
+        this.retention = Duration.ofMillis(retentionMs);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${app.productChanges.compaction.intervalMs}",
+            initialDelayString = "${app.productChanges.compaction.intervalMs}")
+    public void run() {
+        compact(Instant.now());
+    }
+
+    /**
+     * Deletes changes recorded more than the retention before {@code now}.
+     *
+     * @return the number of changes deleted in this run
+     */
+    public int compact(Instant now) {
+        long startedAt = System.nanoTime();
+        Instant cutoff = now.minus(retention);
+        int compacted = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = productChangeService.compact(cutoff, batchSize);
+            compacted += deleted;
+            batches++;
+        } while (deleted >= batchSize && batches < maxBatchesPerRun);
+
+        log.info("Compacted {} product changes older than {} in {} batches ({} ms)",
+                compacted, cutoff, batches, (System.nanoTime() - startedAt) / 1_000_000);
+        return compacted;
+    }
+}
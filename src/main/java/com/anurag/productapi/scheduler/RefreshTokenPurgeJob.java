@@ -0,0 +1,59 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.service.RefreshTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Periodically deletes expired refresh tokens that were never presented again.
+ * <p>
+ * Works in batches of {@code app.jwt.refreshTokenPurge.batchSize}, each in its own transaction, and stops
+ * after {@code maxBatchesPerRun} batches so one run never monopolises the table; the next run continues.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenService refreshTokenService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public RefreshTokenPurgeJob(RefreshTokenService refreshTokenService,
+                                @Value("${app.jwt.refreshTokenPurge.batchSize}") int batchSize,
+                                @Value("${app.jwt.refreshTokenPurge.maxBatchesPerRun}") int maxBatchesPerRun) {
+        this.refreshTokenService = refreshTokenService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refreshTokenPurge.intervalMs}",
+            initialDelayString = "${app.jwt.refreshTokenPurge.intervalMs}")
+    public void run() {
+        purge(Instant.now());
+    }
+
+    /**
+     * Purges tokens expired before {@code now}.
+     *
+     * @return the number of tokens deleted in this run
+     */
+    public int purge(Instant now) {
+        long startedAt = System.nanoTime();
+        int purged = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenService.purgeExpired(now, batchSize);
+            purged += deleted;
+            batches++;
+        } while (deleted == batchSize && batches < maxBatchesPerRun);
+
+        log.info("Purged {} expired refresh tokens in {} batches ({} ms)",
+                purged, batches, (System.nanoTime() - startedAt) / 1_000_000);
+        return purged;
+    }
+}
@@ -1,22 +1,30 @@
 package com.anurag.productapi.security;
 
+import com.anurag.productapi.cache.TokenVersionCache;
+import com.anurag.productapi.enums.AuthFailureReason;
+import com.anurag.productapi.observability.RequestMetrics;
+import com.anurag.productapi.ratelimit.RateLimitFilter;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final RequestMetrics requestMetrics;
+    private final RateLimitFilter rateLimitFilter;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -25,26 +33,34 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
+        AuthFailureReason failure = AuthFailureReason.INVALID_TOKEN;
 
         try {
             if (header != null && header.startsWith("Bearer ")) {
                 String jwt = header.substring(7);
 
-                if (!jwtUtils.validateJwtToken(jwt)) {
-                    throw new RuntimeException("Invalid or expired token");
+                // One verified parse per request; throws if the token is invalid or expired
+                VerifiedToken token = jwtUtils.verify(jwt);
+                // Revoked tokens and tokens issued before a role change carry an outdated version
+                if (!tokenVersionCache.isCurrent(token.username(), token.tokenVersion())) {
+                    failure = AuthFailureReason.REVOKED_TOKEN;
+                    throw new RuntimeException("Token has been revoked");
                 }
 
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                var userDetails = userDetailsService.loadUserByUsername(username);
-
+                // The principal is built from the verified claims alone, without loading the user
                 var auth = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
+                        token.username(), null, List.of(new SimpleGrantedAuthority(token.role().getAuthority()))
                 );
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
         } catch (Exception e) {
             // Missing or invalid token → 401
+            requestMetrics.recordAuthFailure(failure);
+            // Only failed tokens count against the address, so valid tokens sharing it still get through
+            if (rateLimitFilter.rejectInvalidToken(request, response)) {
+                return; // Stop the chain
+            }
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"status\":401,\"error\":\"Unauthorized\",\"message\":\"" + e.getMessage() + "\"}");
@@ -53,4 +69,4 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.enums.Roles;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Password encoder that runs the delegate's hashing and verification inside the {@link PasswordHashingBulkhead}.
+ */
+@RequiredArgsConstructor
+public class BulkheadPasswordEncoder implements RoleAwarePasswordEncoder {
+
+    private final RoleAwarePasswordEncoder delegate;
+    private final PasswordHashingBulkhead bulkhead;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bulkhead.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword, Roles role) {
+        return bulkhead.execute(() -> delegate.encode(rawPassword, role));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return bulkhead.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only inspects the stored hash, cheap enough for the calling thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword, Roles role) {
+        return delegate.upgradeEncoding(encodedPassword, role);
+    }
+}
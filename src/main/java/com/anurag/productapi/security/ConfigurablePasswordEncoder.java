@@ -0,0 +1,122 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.enums.Roles;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delegating password encoder with a configurable scheme and per-role BCrypt cost.
+ * <p>
+ * New hashes are stored as {@code {id}hash}. Hashes without a prefix predate this encoder and are BCrypt.
+ * Matching works for every supported scheme and cost, so the configuration can change at any time;
+ * {@link #upgradeEncoding(String, Roles)} tells the login flow which stored hashes to rewrite.
+ */
+public class ConfigurablePasswordEncoder implements RoleAwarePasswordEncoder {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+
+    private final String encodingId;
+    private final int defaultStrength;
+    private final Map<Roles, Integer> roleStrengths;
+    private final Map<Integer, PasswordEncoder> bcryptByStrength = new ConcurrentHashMap<>();
+    private final PasswordEncoder pbkdf2 = Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+    private final DelegatingPasswordEncoder matcher;
+
+    public ConfigurablePasswordEncoder(String encodingId, int defaultStrength, Map<Roles, Integer> roleStrengths) {
+        if (!BCRYPT.equals(encodingId) && !PBKDF2.equals(encodingId)) {
+            throw new IllegalArgumentException("Unsupported password encoding: " + encodingId);
+        }
+        this.encodingId = encodingId;
+        this.defaultStrength = defaultStrength;
+        this.roleStrengths = new EnumMap<>(Roles.class);
+        this.roleStrengths.putAll(roleStrengths);
+
+        // BCrypt reads the cost from the hash, so one instance matches hashes of any cost
+        PasswordEncoder bcrypt = bcrypt(defaultStrength);
+        this.matcher = new DelegatingPasswordEncoder(encodingId, Map.of(BCRYPT, bcrypt, PBKDF2, pbkdf2));
+        this.matcher.setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encode(rawPassword, null);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword, Roles role) {
+        PasswordEncoder encoder = BCRYPT.equals(encodingId) ? bcrypt(strengthFor(role)) : pbkdf2;
+        return "{" + encodingId + "}" + encoder.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matcher.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return upgradeEncoding(encodedPassword, null);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword, Roles role) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String id = BCRYPT;
+        String hash = encodedPassword;
+        if (encodedPassword.startsWith("{")) {
+            int end = encodedPassword.indexOf('}');
+            if (end < 0) {
+                return true;
+            }
+            id = encodedPassword.substring(1, end);
+            hash = encodedPassword.substring(end + 1);
+        }
+        if (!id.equals(encodingId)) {
+            return true;
+        }
+        return BCRYPT.equals(id) && bcryptStrength(hash) != strengthFor(role);
+    }
+
+    private int strengthFor(Roles role) {
+        return role != null ? roleStrengths.getOrDefault(role, defaultStrength) : defaultStrength;
+    }
+
+    private PasswordEncoder bcrypt(int strength) {
+        return bcryptByStrength.computeIfAbsent(strength, BCryptPasswordEncoder::new);
+    }
+
+    // "ADMIN:12,USER:10"
+    public static Map<Roles, Integer> parseRoleStrengths(String roleStrengths) {
+        Map<Roles, Integer> parsed = new EnumMap<>(Roles.class);
+        for (String entry : StringUtils.commaDelimitedListToStringArray(roleStrengths)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid role strength entry: " + entry);
+            }
+            parsed.put(Roles.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+
+    // "$2a$10$..." -> 10; -1 if the hash is not in BCrypt format
+    private static int bcryptStrength(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.anurag.productapi.security;
 
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -7,48 +10,96 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
 
+    static final String ROLE_CLAIM = "role";
+    static final String VERSION_CLAIM = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expirationMs}")
     private int jwtExpirationMs;
 
+    // 0 disables the verified-token cache
+    @Value("${app.jwt.verifiedCache.maxSize}")
+    private long verifiedCacheMaxSize;
+
+    @Value("${app.jwt.verifiedCache.ttlMs}")
+    private long verifiedCacheTtlMs;
+
     private Key key;
 
+    // Thread-safe and immutable once built, so one instance serves every request
+    private JwtParser parser;
+
+    private VerifiedTokenCache verifiedTokens;
+
     @PostConstruct
     public void init() {
         key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = verifiedCacheMaxSize > 0
+                ? new VerifiedTokenCache(verifiedCacheMaxSize, Duration.ofMillis(verifiedCacheTtlMs))
+                : null;
     }
 
-    public String generateToken(String username) {
+    /**
+     * Issues an access token carrying everything needed to authenticate later requests without a lookup:
+     * the username, the role and the user's current token version.
+     */
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(VERSION_CLAIM, user.getTokenVersion() != null ? user.getTokenVersion() : 0L)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verifies the token's signature and expiry and returns its claims.
+     * Tokens seen recently are answered from the verified-token cache without re-checking the signature.
+     *
+     * @throws RuntimeException if the token is malformed, tampered with, expired or lacks the role/version claims
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+        return verifiedTokens.get(token, this::parse);
+    }
+
+    /**
+     * Statistics of the verified-token cache, empty when it is disabled.
+     */
+    public Optional<CacheStatsResponse> verifiedTokenStats() {
+        return Optional.ofNullable(verifiedTokens).map(VerifiedTokenCache::stats);
     }
 
-    public boolean validateJwtToken(String authToken) {
+    private VerifiedToken parse(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            Number version = claims.get(VERSION_CLAIM, Number.class);
+            if (role == null || version == null) {
+                throw new MalformedJwtException("Missing role or version claim");
+            }
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    Roles.valueOf(role),
+                    version.longValue(),
+                    expiration != null ? expiration.toInstant() : null);
         } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Invalid JWT token");
         }
     }
-}
\ No newline at end of file
+}
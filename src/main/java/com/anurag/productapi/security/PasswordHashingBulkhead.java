@@ -0,0 +1,107 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.dto.response.BulkheadStatsResponse;
+import com.anurag.productapi.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool with a bounded queue.
+ * <p>
+ * BCrypt is deliberately CPU-bound; confining it to a few threads keeps a login burst from
+ * starving the request threads that serve the rest of the API. When the queue is full the
+ * call is rejected straight away with {@link ServiceOverloadedException} rather than waiting.
+ */
+@Component
+public class PasswordHashingBulkhead {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+    private final AtomicLong executionNanos = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+
+    public PasswordHashingBulkhead(@Value("${app.passwordHashing.threads}") int threads,
+                                   @Value("${app.passwordHashing.queueCapacity}") int queueCapacity,
+                                   @Value("${app.passwordHashing.retryAfterSeconds}") long retryAfterSeconds) {
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs {@code task} on the hashing pool and waits for its result.
+     *
+     * @throws ServiceOverloadedException if the pool and its queue are full
+     */
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.addAndGet(startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    executionNanos.addAndGet(System.nanoTime() - startedAt);
+                    executions.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceOverloadedException("Too many concurrent authentication requests, retry later",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public BulkheadStatsResponse stats() {
+        long count = executions.get();
+        return BulkheadStatsResponse.builder()
+                .name("passwordHashing")
+                .poolSize(executor.getMaximumPoolSize())
+                .activeCount(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completedCount(count)
+                .rejectedCount(rejected.get())
+                .averageQueueWaitMillis(count == 0 ? 0 : queueWaitNanos.get() / 1e6 / count)
+                .averageExecutionMillis(count == 0 ? 0 : executionNanos.get() / 1e6 / count)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,22 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.enums.Roles;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder whose hashing cost can depend on the user's role.
+ * The plain {@link PasswordEncoder} methods use the default cost.
+ */
+public interface RoleAwarePasswordEncoder extends PasswordEncoder {
+
+    /**
+     * Hashes {@code rawPassword} with the scheme and cost configured for {@code role}.
+     */
+    String encode(CharSequence rawPassword, Roles role);
+
+    /**
+     * Returns whether {@code encodedPassword} was produced with a different scheme or cost than is now
+     * configured for {@code role}, so it should be re-hashed on the next successful login.
+     */
+    boolean upgradeEncoding(String encodedPassword, Roles role);
+}
@@ -1,15 +1,16 @@
 package com.anurag.productapi.security;
 
+import com.anurag.productapi.ratelimit.RateLimitFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.*;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -25,6 +26,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final AuthTokenFilter authTokenFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -50,12 +52,29 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // After authentication, so authenticated clients are limited per user and role
+        http.addFilterAfter(rateLimitFilter, AuthTokenFilter.class);
         return http.build();
     }
 
+    // Runs inside the security chain only, not a second time as a plain servlet filter
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Scheme and per-role cost come from configuration; hashing runs on the bulkhead, off the request threads
+    @Bean
+    public RoleAwarePasswordEncoder passwordEncoder(
+            PasswordHashingBulkhead passwordHashingBulkhead,
+            @Value("${app.passwordHashing.encodingId}") String encodingId,
+            @Value("${app.passwordHashing.bcryptStrength}") int bcryptStrength,
+            @Value("${app.passwordHashing.roleBcryptStrengths}") String roleBcryptStrengths) {
+        ConfigurablePasswordEncoder encoder = new ConfigurablePasswordEncoder(
+                encodingId, bcryptStrength, ConfigurablePasswordEncoder.parseRoleStrengths(roleBcryptStrengths));
+        return new BulkheadPasswordEncoder(encoder, passwordHashingBulkhead);
     }
 
     @Bean
@@ -63,7 +82,10 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-None-Match", "If-Modified-Since",
+                "Last-Event-ID"));
+        configuration.setExposedHeaders(List.of("ETag", "Last-Modified", "X-Has-Next", "X-SQL-Count", "X-SQL-Time-Ms",
+                "Retry-After"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
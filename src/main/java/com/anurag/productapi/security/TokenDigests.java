@@ -0,0 +1,46 @@
+package com.anurag.productapi.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Opaque token generation and the SHA-256 digests used to store and look tokens up
+ * without keeping the tokens themselves.
+ */
+public final class TokenDigests {
+
+    public static final int DIGEST_LENGTH = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private TokenDigests() {
+    }
+
+    /**
+     * Returns {@code bytes} random bytes, Base64URL-encoded without padding.
+     */
+    public static String randomToken(int bytes) {
+        byte[] token = new byte[bytes];
+        RANDOM.nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Compares two digests in time that does not depend on where they differ.
+     */
+    public static boolean matches(byte[] expected, byte[] actual) {
+        return MessageDigest.isEqual(expected, actual);
+    }
+}
@@ -1,20 +1,46 @@
 package com.anurag.productapi.security;
+import com.anurag.productapi.cache.AfterCommit;
+import com.anurag.productapi.dto.response.CacheStatsResponse;
 import com.anurag.productapi.entity.User;
 import com.anurag.productapi.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
+/**
+ * Loads users for authentication through a bounded, TTL-evicting cache.
+ * Concurrent misses for the same username wait for a single query instead of each hitting the database.
+ */
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository repository;
+    private final LoadingCache<String, UserDetailsImpl> cache;
+
+    public UserDetailsServiceImpl(UserRepository repository,
+                                  @Value("${app.cache.userDetails.maxSize}") long maxSize,
+                                  @Value("${app.cache.userDetails.ttlMs}") long ttlMs) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build(this::load);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
+        // Unknown usernames throw from the loader and are not cached
+        return cache.get(username);
+    }
 
+    private UserDetailsImpl load(String username) {
         User user = repository.findByUsername(username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username: " + username)
@@ -22,4 +48,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return new UserDetailsImpl(user);
     }
-}
\ No newline at end of file
+
+    // Removal waits for an in-flight load of the same username, so a value read before the change cannot survive it
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    // Evicts once the surrounding transaction commits, or right away outside a transaction
+    public void evictAfterCommit(String username) {
+        AfterCommit.run(() -> evict(username));
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name("userDetails")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.enums.Roles;
+
+import java.time.Instant;
+
+/**
+ * Claims of an access token whose signature and expiry have been checked.
+ *
+ * @param username     the token subject
+ * @param role         the role the user had when the token was issued
+ * @param tokenVersion the user's token version when the token was issued
+ * @param expiresAt    the token's {@code exp}, or {@code null} if it has none
+ */
+public record VerifiedToken(String username, Roles role, long tokenVersion, Instant expiresAt) {
+}
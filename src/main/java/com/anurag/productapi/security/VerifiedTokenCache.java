@@ -0,0 +1,66 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of access tokens that already passed signature verification.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are not kept in memory,
+ * and expire after the configured TTL or at the token's {@code exp}, whichever comes first.
+ */
+class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    VerifiedTokenCache(long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) -> lifetime(token, ttl)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached verification of {@code token}, or verifies it with {@code verifier}.
+     * Tokens that fail verification are not cached.
+     */
+    VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(digest(token), digest -> verifier.apply(token));
+    }
+
+    CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name("verifiedTokens")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private static Duration lifetime(VerifiedToken token, Duration ttl) {
+        if (token.expiresAt() == null) {
+            return ttl;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), token.expiresAt());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+
+    private static String digest(String token) {
+        return Base64.getEncoder().encodeToString(TokenDigests.sha256(token));
+    }
+}
@@ -1,20 +1,139 @@
 package com.anurag.productapi.service;
 
-import org.springframework.scheduling.annotation.Async;
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.NotificationType;
+import com.anurag.productapi.enums.OutboxStatus;
+import com.anurag.productapi.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Notifications go through the {@code notification_outbox} table: they are written in the transaction
+ * that causes them, so they are sent if and only if it commits and survive restarts, and are delivered
+ * later by {@link com.anurag.productapi.scheduler.NotificationOutboxDispatcher}.
+ */
+@Slf4j
 @Service
 public class NotificationService {
 
-    @Async
-    public void sendWelcomeEmailAsync(String username) {
-        // Simulating a time-consuming background task
-        System.out.println("Async Process Started: Sending welcome email to " + username);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final long simulatedDelayMs;
+
+    public NotificationService(NotificationOutboxRepository outboxRepository,
+                               @Value("${app.notifications.simulatedDelayMs}") long simulatedDelayMs) {
+        this.outboxRepository = outboxRepository;
+        this.simulatedDelayMs = simulatedDelayMs;
+    }
+
+    /**
+     * Queues a welcome email as part of the caller's transaction, which must exist.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueWelcomeEmail(String username) {
+        Instant now = Instant.now();
+        outboxRepository.save(NotificationOutbox.builder()
+                .type(NotificationType.WELCOME_EMAIL)
+                .recipient(username)
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    /**
+     * Claims up to {@code limit} notifications due at {@code now} by moving their next attempt past
+     * {@code lease}; if delivery never reports back, they become due again then. Rows locked by a
+     * concurrent claim are skipped, so no two claims return the same notification.
+     */
+    @Transactional
+    public List<NotificationOutbox> claimDue(Instant now, int limit, Duration lease) {
+        List<NotificationOutbox> due = outboxRepository.findDue(OutboxStatus.PENDING, now, Limit.of(limit));
+        Instant leaseUntil = leaseUntil(now, lease);
+        due.forEach(notification -> notification.setNextAttemptAt(leaseUntil));
+        return due;
+    }
+
+    /**
+     * Restarts the lease of a claimed notification at {@code now}, when delivery actually starts. Returns
+     * {@code false}, leaving the row alone, if the notification no longer holds this claim: it was delivered,
+     * given up on, or claimed again after the lease ran out, and must not be sent.
+     */
+    @Transactional
+    public boolean renewClaim(NotificationOutbox notification, Instant now, Duration lease) {
+        Instant leaseUntil = leaseUntil(now, lease);
+        boolean renewed = outboxRepository.renewLease(notification.getId(), OutboxStatus.PENDING,
+                notification.getNextAttemptAt(), leaseUntil) == 1;
+        if (renewed) {
+            notification.setNextAttemptAt(leaseUntil);
+        }
+        return renewed;
+    }
+
+    @Transactional
+    public void markDelivered(Long id) {
+        outboxRepository.deleteDelivered(id);
+    }
+
+    /**
+     * Records a failed attempt and schedules the next one at {@code nextAttemptAt}, or gives up
+     * and marks the notification {@link OutboxStatus#FAILED} when it is {@code null}.
+     */
+    @Transactional
+    public void markFailed(Long id, String error, Instant nextAttemptAt) {
+        outboxRepository.findById(id).ifPresent(notification -> {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (nextAttemptAt == null) {
+                notification.setStatus(OutboxStatus.FAILED);
+            } else {
+                notification.setNextAttemptAt(nextAttemptAt);
+            }
+        });
+    }
+
+    /**
+     * Sends one notification; throws if it could not be sent.
+     */
+    public void deliver(NotificationOutbox notification) {
+        switch (notification.getType()) {
+            case WELCOME_EMAIL -> sendWelcomeEmail(notification.getRecipient());
+        }
+    }
+
+    public long countByStatus(OutboxStatus status) {
+        return outboxRepository.countByStatus(status);
+    }
+
+    public Instant oldestPendingCreatedAt() {
+        return outboxRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+    }
+
+    // Whole milliseconds, so the value read back from the column compares equal to the claim
+    private static Instant leaseUntil(Instant now, Duration lease) {
+        return now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private void sendWelcomeEmail(String username) {
+        // Simulating a time-consuming mail server call
+        log.info("Sending welcome email to {}", username);
         try {
-            Thread.sleep(2000);
+            Thread.sleep(simulatedDelayMs);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending welcome email", e);
         }
-        System.out.println("Async Process Completed: Email sent to " + username);
+        log.info("Welcome email sent to {}", username);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.enums.ProductChangeOperation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Incremental product change feed: every product write appends a change record with a monotonic
+ * sequence number, and consumers read the records after the last sequence they have seen instead of
+ * re-reading the whole catalog.
+ */
+public interface ProductChangeService {
+
+    /**
+     * Appends one change per existing product in {@code productIds}, as part of the caller's transaction,
+     * which must exist. Ids of products that do not exist are skipped, so deletions must be recorded
+     * before the rows are deleted.
+     *
+     * @return the change records appended, with their sequence numbers
+     */
+    List<ProductChangeResponse> recordChanges(Collection<Integer> productIds, ProductChangeOperation operation);
+
+    /**
+     * Reads up to {@code limit} changes after sequence {@code since}, in sequence order.
+     * <p>
+     * A sequence number is taken when a change is inserted, not when its transaction commits, so a
+     * change may become visible after higher-numbered ones. The batch therefore stops before a missing
+     * sequence number until the change after it is older than {@code app.productChanges.gapTimeoutMs};
+     * after that the gap is taken to be a rolled-back write and skipped.
+     *
+     * @throws com.anurag.productapi.exception.ChangeFeedExpiredException if changes after {@code since}
+     *                                                                    were already compacted
+     */
+    ProductChangeFeedResponse getChangesSince(long since, int limit);
+
+    /**
+     * The highest sequence number recorded so far, 0 when there are none.
+     */
+    long latestSeq();
+
+    /**
+     * Deletes one batch of the oldest changes recorded before {@code cutoff}, in its own short transaction.
+     * The newest change before {@code cutoff} is kept as the boundary of the retained changes.
+     *
+     * @return the number of changes deleted; less than {@code batchSize} once nothing older is left
+     */
+    int compact(Instant cutoff, int batchSize);
+}
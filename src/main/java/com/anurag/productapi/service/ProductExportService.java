@@ -0,0 +1,23 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for exporting the whole product catalog.
+ */
+public interface ProductExportService {
+
+    /**
+     * Streams every product and its items to the given output stream.
+     * Rows are read through a forward-only database cursor and written as they arrive,
+     * so memory use does not grow with the size of the catalog.
+     *
+     * @param format NDJSON (one product with its items per line) or CSV (one item per line)
+     * @param outputStream the stream to write the export to; it is flushed but not closed
+     * @throws IOException if writing to the output stream fails
+     */
+    void exportProducts(ExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -1,9 +1,16 @@
 package com.anurag.productapi.service;
 
 import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.CursorPageResponse;
+import com.anurag.productapi.dto.response.ItemResponse;
 import com.anurag.productapi.dto.response.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Service interface for managing products and their related items.
@@ -19,6 +26,18 @@ public interface ProductService {
      */
     Page<ProductResponse> getAllProducts(Pageable pageable);
 
+    /**
+     * Retrieves products ordered by creation time using keyset (cursor) pagination.
+     * Seeks past the given cursor instead of using OFFSET and never runs a count query,
+     * so every page costs the same regardless of how deep it is.
+     *
+     * @param cursor opaque cursor returned by a previous call, or null for the first page
+     * @param size maximum number of products to return
+     * @return a CursorPageResponse with the products and the cursor of the next page
+     * @throws com.anurag.productapi.exception.InvalidCursorException if the cursor cannot be decoded
+     */
+    CursorPageResponse<ProductResponse> getProductsAfter(String cursor, int size);
+
     /**
      * Retrieves a single product by its ID.
      *
@@ -28,6 +47,26 @@ public interface ProductService {
      */
     ProductResponse getProductById(Integer id);
 
+    /**
+     * Retrieves a page of the items of a product without loading the product itself.
+     *
+     * @param id the ID of the product whose items to retrieve
+     * @param pageable pagination information (page number, size)
+     * @return a Slice of ItemResponse DTOs ordered by item ID
+     * @throws com.anurag.productapi.exception.ResourceNotFoundException if the product with the given ID does not exist
+     */
+    Slice<ItemResponse> getItemsByProductId(Integer id, Pageable pageable);
+
+    /**
+     * Returns the time the product was last modified, or created if it was never modified.
+     * Used to answer conditional requests without loading the product's items.
+     *
+     * @param id the ID of the product
+     * @return the modification stamp of the product
+     * @throws com.anurag.productapi.exception.ResourceNotFoundException if the product with the given ID does not exist
+     */
+    LocalDateTime getLastModified(Integer id);
+
     /**
      * Creates a new product along with its associated items.
      * Automatically sets audit fields such as createdBy and createdOn.
@@ -37,9 +76,20 @@ public interface ProductService {
      */
     ProductResponse createProduct(ProductRequest request);
 
+    /**
+     * Creates many products along with their items in a single transaction.
+     * Ids are preallocated from pooled sequences, so the inserts are sent in JDBC batches.
+     *
+     * @param requests ProductRequest DTOs containing product and item details
+     * @return ProductResponse DTOs of the newly created products, in request order
+     */
+    List<ProductResponse> createProducts(List<ProductRequest> requests);
+
     /**
      * Updates an existing product and its items.
-     * Replaces old items with new ones and updates audit fields like modifiedBy and modifiedOn.
+     * Requested items with an ID update the matching existing item, items without an ID are added,
+     * and existing items missing from the request are removed. Only changed rows are written.
+     * Also updates audit fields like modifiedBy and modifiedOn.
      *
      * @param id the ID of the product to update
      * @param request ProductRequest DTO containing updated product and item details
@@ -50,9 +100,19 @@ public interface ProductService {
 
     /**
      * Deletes a product by its ID.
+     * The product and its items are removed with set-based statements, without loading them.
      *
      * @param id the ID of the product to delete
-     * @throws jakarta.persistence.EntityNotFoundException if the product with the given ID does not exist
+     * @throws com.anurag.productapi.exception.ResourceNotFoundException if the product with the given ID does not exist
      */
     void deleteProduct(Integer id);
+
+    /**
+     * Deletes several products and their items in one transaction.
+     * Ids that do not exist are ignored.
+     *
+     * @param ids the IDs of the products to delete
+     * @return the number of products actually deleted
+     */
+    int deleteProducts(Collection<Integer> ids);
 }
\ No newline at end of file
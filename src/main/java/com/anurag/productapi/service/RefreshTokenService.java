@@ -3,6 +3,8 @@ package com.anurag.productapi.service;
 import com.anurag.productapi.entity.RefreshToken;
 import com.anurag.productapi.entity.User;
 
+import java.time.Instant;
+
 /**
  * Service interface for managing refresh tokens.
  * Handles creation, validation, retrieval, and deletion of refresh tokens for users.
@@ -10,13 +12,25 @@ import com.anurag.productapi.entity.User;
 public interface RefreshTokenService {
 
     /**
-     * Creates a new refresh token for the specified user.
+     * Starts a new session for the specified user and returns its refresh token.
+     * Other sessions of the user stay valid; when the user already has the maximum number of sessions,
+     * the oldest ones are ended.
      *
      * @param user the User entity for whom the refresh token is generated
-     * @return the newly created RefreshToken entity
+     * @return the newly created RefreshToken entity, carrying the raw token to hand to the client
      */
     RefreshToken createRefreshToken(User user);
 
+    /**
+     * Replaces the token of a session with a new one and extends its expiry.
+     * Only one of several concurrent rotations of the same token succeeds.
+     *
+     * @param token the refresh token that was presented
+     * @return the session with its new token
+     * @throws com.anurag.productapi.exception.TokenRefreshException if the token was already rotated
+     */
+    RefreshToken rotate(RefreshToken token);
+
     /**
      * Verifies whether a given refresh token has expired.
      *
@@ -34,11 +48,21 @@ public interface RefreshTokenService {
     void deleteByUser(User user);
 
     /**
-     * Finds a refresh token entity by its token string.
+     * Finds a refresh token entity by its token string. Only the token's SHA-256 digest is stored,
+     * so the lookup is by digest.
      *
      * @param token the string value of the refresh token
      * @return the RefreshToken entity corresponding to the provided token
      * @throws RuntimeException or custom exception if the token does not exist
      */
     RefreshToken findByToken(String token);
+
+    /**
+     * Deletes one batch of refresh tokens that expired before {@code now}, in its own short transaction.
+     *
+     * @param now       the cut-off; tokens expiring before it are deleted
+     * @param batchSize the maximum number of tokens to delete
+     * @return the number of tokens deleted; less than {@code batchSize} once no expired tokens are left
+     */
+    int purgeExpired(Instant now, int batchSize);
 }
\ No newline at end of file
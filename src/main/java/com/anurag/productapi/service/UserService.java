@@ -1,6 +1,7 @@
 package com.anurag.productapi.service;
 
 import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
 
 /**
  * Service interface for managing User entities.
@@ -10,6 +11,7 @@ public interface UserService {
 
     /**
      * Saves a new user or updates an existing user in the database.
+     * A new user also gets a welcome email queued in the same transaction.
      *
      * @param user the User entity to save
      * @return the saved User entity with updated information (e.g., ID)
@@ -24,4 +26,31 @@ public interface UserService {
      * @throws jakarta.persistence.EntityNotFoundException if no user is found with the provided username
      */
     User findByUsername(String username);
+
+    /**
+     * Invalidates every access token issued to the user so far and deletes their refresh tokens,
+     * so the user has to log in again.
+     *
+     * @param username the username of the user whose tokens are revoked
+     * @throws com.anurag.productapi.exception.ResourceNotFoundException if no user has the given username
+     */
+    void revokeTokens(String username);
+
+    /**
+     * Changes the role of a user. Access tokens issued with the previous role stop working;
+     * the user's refresh token stays valid and yields tokens with the new role.
+     *
+     * @param username the username of the user to update
+     * @param role     the new role
+     * @throws com.anurag.productapi.exception.ResourceNotFoundException if no user has the given username
+     */
+    void changeRole(String username, Roles role);
+
+    /**
+     * Replaces the stored password hash of a user, e.g. after re-hashing with a new scheme or cost.
+     *
+     * @param user            the user whose hash is replaced
+     * @param encodedPassword the new password hash
+     */
+    void updatePasswordHash(User user, String encodedPassword);
 }
\ No newline at end of file
@@ -6,13 +6,13 @@ import com.anurag.productapi.entity.RefreshToken;
 import com.anurag.productapi.entity.User;
 import com.anurag.productapi.enums.Roles;
 import com.anurag.productapi.security.JwtUtils;
+import com.anurag.productapi.security.RoleAwarePasswordEncoder;
 import com.anurag.productapi.security.UserDetailsImpl;
 import com.anurag.productapi.service.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,21 +23,19 @@ public class AuthServiceImpl implements AuthService {
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
-
-    private final NotificationService notificationService;
+    private final RoleAwarePasswordEncoder passwordEncoder;
 
     @Override
     public void signup(SignupRequest request) {
 
         User user = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordEncoder.encode(request.getPassword(), Roles.USER))
                 .role(Roles.USER)
                 .build();
 
+        // Also queues the welcome email; delivery happens off the request
         userService.saveUser(user);
-        notificationService.sendWelcomeEmailAsync(user.getUsername());
     }
 
     @Override
@@ -55,7 +53,13 @@ public class AuthServiceImpl implements AuthService {
         UserDetailsImpl userDetails =
                 (UserDetailsImpl) authentication.getPrincipal();
 
-        String jwt = jwtUtils.generateToken(userDetails.getUsername());
+        // The raw password is known only now: bring the stored hash to the configured scheme and cost
+        User user = userDetails.getUser();
+        if (passwordEncoder.upgradeEncoding(user.getPassword(), user.getRole())) {
+            userService.updatePasswordHash(user, passwordEncoder.encode(request.getPassword(), user.getRole()));
+        }
+
+        String jwt = jwtUtils.generateToken(userDetails.getUser());
 
         RefreshToken refreshToken =
                 refreshTokenService.createRefreshToken(userDetails.getUser());
@@ -75,11 +79,11 @@ public class AuthServiceImpl implements AuthService {
 
         refreshTokenService.verifyExpiration(refreshToken);
 
-        // ROTATION: Create a new refresh token (this invalidates the old one via deleteByUser)
-        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(refreshToken.getUser());
+        // ROTATION: replace the token of this session in place; the presented token stops working
+        RefreshToken newRefreshToken = refreshTokenService.rotate(refreshToken);
 
         String token =
-                jwtUtils.generateToken(refreshToken.getUser().getUsername());
+                jwtUtils.generateToken(refreshToken.getUser());
 
         return new TokenRefreshResponse(
                 token,
@@ -0,0 +1,278 @@
+package com.anurag.productapi.service.impl;
+
+import com.anurag.productapi.entity.RefreshToken;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.exception.TokenRefreshException;
+import com.anurag.productapi.repository.UserRepository;
+import com.anurag.productapi.security.TokenDigests;
+import com.anurag.productapi.service.RefreshTokenService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh token sessions kept in process memory, for single-node deployments and tests.
+ * <p>
+ * Saves the database round trips of the JPA store on every login and refresh; only a refresh
+ * loads the user by primary key. Like the JPA store it keeps token digests, never the tokens.
+ * Sessions are not shared between instances and are lost on restart unless
+ * {@code app.jwt.refreshTokenStore.snapshotFile} is set, in which case they are written there
+ * on shutdown and read back on startup.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.jwt.refreshTokenStore.type", havingValue = "memory")
+public class InMemoryRefreshTokenServiceImpl implements RefreshTokenService {
+
+    // 256 bits of randomness; only its digest is kept
+    private static final int TOKEN_BYTES = 32;
+
+    private final UserRepository userRepository;
+    private final long refreshTokenDurationMs;
+    private final int maxSessionsPerUser;
+    private final Path snapshotFile;
+
+    private final AtomicLong sessionIds = new AtomicLong();
+    // Sessions are immutable and replaced on rotation, so a compare-and-set is a single replace()
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> sessionIdsByDigest = new ConcurrentHashMap<>();
+    // Ascending, so the oldest session comes first; each set is only touched inside compute() for its user
+    private final ConcurrentHashMap<Long, NavigableSet<Long>> sessionIdsByUser = new ConcurrentHashMap<>();
+
+    record Session(long id, long userId, byte[] tokenHash, Instant expiryDate) {
+    }
+
+    public InMemoryRefreshTokenServiceImpl(UserRepository userRepository,
+                                           @Value("${app.jwt.refreshExpirationMs}") long refreshTokenDurationMs,
+                                           @Value("${app.jwt.maxSessionsPerUser}") int maxSessionsPerUser,
+                                           @Value("${app.jwt.refreshTokenStore.snapshotFile:}") String snapshotFile) {
+        // Every login needs room for its own session
+        if (maxSessionsPerUser < 1) {
+            throw new IllegalArgumentException("app.jwt.maxSessionsPerUser must be at least 1, was " + maxSessionsPerUser);
+        }
+        this.userRepository = userRepository;
+        this.refreshTokenDurationMs = refreshTokenDurationMs;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+    }
+
+    @Override
+    public RefreshToken createRefreshToken(User user) {
+        String rawToken = TokenDigests.randomToken(TOKEN_BYTES);
+        Session session = new Session(sessionIds.incrementAndGet(), user.getId(),
+                TokenDigests.sha256(rawToken), Instant.now().plusMillis(refreshTokenDurationMs));
+        sessions.put(session.id(), session);
+        sessionIdsByDigest.put(digestKey(session.tokenHash()), session.id());
+
+        // Make room for the new session by ending the oldest ones past the cap
+        sessionIdsByUser.compute(user.getId(), (userId, ids) -> {
+            NavigableSet<Long> userSessions = ids == null ? new TreeSet<>() : ids;
+            userSessions.add(session.id());
+            while (userSessions.size() > maxSessionsPerUser) {
+                forget(userSessions.pollFirst());
+            }
+            return userSessions;
+        });
+
+        return toRefreshToken(session, user, rawToken);
+    }
+
+    @Override
+    public RefreshToken rotate(RefreshToken token) {
+        Session current = sessions.get(token.getId());
+        if (current == null || !TokenDigests.matches(current.tokenHash(), token.getTokenHash())) {
+            throw new TokenRefreshException(token.getToken(), "Refresh token was already used");
+        }
+
+        String newToken = TokenDigests.randomToken(TOKEN_BYTES);
+        Session rotated = new Session(current.id(), current.userId(),
+                TokenDigests.sha256(newToken), Instant.now().plusMillis(refreshTokenDurationMs));
+
+        // Of two concurrent refreshes of one session only one replaces the session it read
+        if (!sessions.replace(current.id(), current, rotated)) {
+            throw new TokenRefreshException(token.getToken(), "Refresh token was already used");
+        }
+        sessionIdsByDigest.remove(digestKey(current.tokenHash()), current.id());
+        sessionIdsByDigest.put(digestKey(rotated.tokenHash()), rotated.id());
+
+        return toRefreshToken(rotated, token.getUser(), newToken);
+    }
+
+    @Override
+    public RefreshToken verifyExpiration(RefreshToken token) {
+
+        if (token.getExpiryDate().isBefore(Instant.now())) {
+            end(sessions.get(token.getId()));
+            throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new signin request");
+        }
+
+        return token;
+    }
+
+    @Override
+    public void deleteByUser(User user) {
+        NavigableSet<Long> userSessions = sessionIdsByUser.remove(user.getId());
+        if (userSessions != null) {
+            userSessions.forEach(this::forget);
+        }
+    }
+
+    @Override
+    public RefreshToken findByToken(String token) {
+        byte[] tokenHash = TokenDigests.sha256(token);
+        Long sessionId = sessionIdsByDigest.get(digestKey(tokenHash));
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        // The session may have been rotated since the digest lookup
+        if (session == null || !TokenDigests.matches(session.tokenHash(), tokenHash)) {
+            throw new TokenRefreshException(token, "Refresh token is not in database!");
+        }
+
+        User user = userRepository.findById(session.userId())
+                .orElseThrow(() -> new TokenRefreshException(token, "Refresh token is not in database!"));
+        return toRefreshToken(session, user, token);
+    }
+
+    @Override
+    public int purgeExpired(Instant now, int batchSize) {
+        List<Session> expired = new ArrayList<>(batchSize);
+        for (Session session : sessions.values()) {
+            if (expired.size() == batchSize) {
+                break;
+            }
+            if (session.expiryDate().isBefore(now)) {
+                expired.add(session);
+            }
+        }
+
+        int purged = 0;
+        for (Session session : expired) {
+            if (end(session)) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    @PostConstruct
+    public void restoreSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        int restored = 0;
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Session session = parse(line);
+                if (session.expiryDate().isBefore(now)) {
+                    continue;
+                }
+                sessions.put(session.id(), session);
+                sessionIdsByDigest.put(digestKey(session.tokenHash()), session.id());
+                sessionIdsByUser.computeIfAbsent(session.userId(), userId -> new TreeSet<>()).add(session.id());
+                sessionIds.accumulateAndGet(session.id(), Math::max);
+                restored++;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore refresh token sessions from {}, starting empty", snapshotFile, e);
+            sessions.clear();
+            sessionIdsByDigest.clear();
+            sessionIdsByUser.clear();
+            return;
+        }
+        log.info("Restored {} refresh token sessions from {}", restored, snapshotFile);
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+
+        // Written next to the target and moved over it, so a crash mid-write leaves the previous snapshot intact
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.US_ASCII)) {
+                for (Session session : sessions.values()) {
+                    writer.write(format(session));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Could not write refresh token sessions to {}", snapshotFile, e);
+            return;
+        }
+        log.info("Wrote {} refresh token sessions to {}", sessions.size(), snapshotFile);
+    }
+
+    // Ends a session and drops it from its user's sessions; false if it was already gone
+    private boolean end(Session session) {
+        if (session == null || !sessions.remove(session.id(), session)) {
+            return false;
+        }
+        sessionIdsByDigest.remove(digestKey(session.tokenHash()), session.id());
+        sessionIdsByUser.computeIfPresent(session.userId(), (userId, ids) -> {
+            ids.remove(session.id());
+            return ids.isEmpty() ? null : ids;
+        });
+        return true;
+    }
+
+    // Removes a session already taken out of its user's sessions
+    private void forget(Long sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session != null) {
+            sessionIdsByDigest.remove(digestKey(session.tokenHash()), sessionId);
+        }
+    }
+
+    private static RefreshToken toRefreshToken(Session session, User user, String rawToken) {
+        return RefreshToken.builder()
+                .id(session.id())
+                .user(user)
+                .tokenHash(session.tokenHash())
+                .token(rawToken)
+                .expiryDate(session.expiryDate())
+                .build();
+    }
+
+    private static String digestKey(byte[] tokenHash) {
+        return Base64.getEncoder().encodeToString(tokenHash);
+    }
+
+    // One session per line: id, user id, token digest and expiry in epoch milliseconds
+    private static String format(Session session) {
+        return session.id() + " " + session.userId() + " " + digestKey(session.tokenHash())
+                + " " + session.expiryDate().toEpochMilli();
+    }
+
+    private static Session parse(String line) {
+        String[] fields = line.split(" ");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Malformed session line: " + line);
+        }
+        return new Session(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                Base64.getDecoder().decode(fields[2]), Instant.ofEpochMilli(Long.parseLong(fields[3])));
+    }
+}
@@ -0,0 +1,107 @@
+package com.anurag.productapi.service.impl;
+
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.entity.ProductChange;
+import com.anurag.productapi.enums.ProductChangeOperation;
+import com.anurag.productapi.exception.ChangeFeedExpiredException;
+import com.anurag.productapi.repository.ProductChangeRepository;
+import com.anurag.productapi.service.ProductChangeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class ProductChangeServiceImpl implements ProductChangeService {
+
+    private final ProductChangeRepository productChangeRepository;
+    private final Duration gapTimeout;
+
+    public ProductChangeServiceImpl(ProductChangeRepository productChangeRepository,
+                                    @Value("${app.productChanges.gapTimeoutMs}") long gapTimeoutMs) {
+        this.productChangeRepository = productChangeRepository;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMs);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ProductChangeResponse> recordChanges(Collection<Integer> productIds, ProductChangeOperation operation) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        // At the database's precision, so the rows can be found again by it
+        Instant changedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (productChangeRepository.appendForProducts(productIds, operation, changedAt) == 0) {
+            return List.of();
+        }
+        return productChangeRepository.findAppended(productIds, operation, changedAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangeFeedResponse getChangesSince(long since, int limit) {
+        List<ProductChange> rows = productChangeRepository.findAfter(since, Limit.of(limit));
+        Instant settledBefore = Instant.now().minus(gapTimeout);
+
+        List<ProductChangeResponse> changes = new ArrayList<>(rows.size());
+        long next = since;
+        for (ProductChange row : rows) {
+            if (row.getSeq() != next + 1) {
+                // A write that took an earlier number may still commit; wait for it unless it is long overdue
+                if (row.getChangedAt().isAfter(settledBefore)) {
+                    break;
+                }
+                // Changes right after 'since' are gone and nothing at or before it is left: compacted.
+                // A rolled-back first write looks the same; re-reading the catalog is safe then too
+                if (changes.isEmpty() && !productChangeRepository.existsBySeqLessThanEqual(since)) {
+                    throw new ChangeFeedExpiredException(since, row.getSeq());
+                }
+            }
+            changes.add(toResponse(row));
+            next = row.getSeq();
+        }
+
+        return ProductChangeFeedResponse.builder()
+                .changes(changes)
+                .next(next)
+                .hasMore(changes.size() == limit)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long latestSeq() {
+        return productChangeRepository.findLatestSeq();
+    }
+
+    @Override
+    @Transactional
+    public int compact(Instant cutoff, int batchSize) {
+        List<Long> seqs = productChangeRepository.findSeqsChangedBefore(cutoff, Limit.of(batchSize + 1));
+        if (seqs.size() < 2) {
+            return 0;
+        }
+        // Deletes a prefix of the sequence and keeps the newest old change as the boundary: the oldest
+        // retained change is then always past the gap timeout, so getChangesSince tells a consumer behind
+        // it right away instead of waiting for the gap to settle
+        return productChangeRepository.deleteBefore(seqs.get(seqs.size() - 1));
+    }
+
+    private static ProductChangeResponse toResponse(ProductChange change) {
+        return ProductChangeResponse.builder()
+                .seq(change.getSeq())
+                .productId(change.getProductId())
+                .operation(change.getOperation())
+                .changedAt(change.getChangedAt())
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.anurag.productapi.service.impl;
+
+import com.anurag.productapi.dto.response.ItemResponse;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.enums.ExportFormat;
+import com.anurag.productapi.repository.ProductRepository;
+import com.anurag.productapi.repository.projection.ProductExportRow;
+import com.anurag.productapi.service.ProductExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final String CSV_HEADER =
+            "product_id,product_name,created_by,created_on,modified_by,modified_on,item_id,quantity";
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    // The transaction keeps the database cursor open (PostgreSQL only honours the fetch size
+    // outside auto-commit). Rows are DTO projections, not entities, so the persistence context
+    // stays empty however many rows pass through it.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<ProductExportRow> rows = productRepository.streamExportRows()) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(rows.iterator(), writer);
+            } else {
+                writeNdjson(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    // Rows arrive ordered by product id, so a product is complete as soon as the id changes
+    private void writeNdjson(Iterator<ProductExportRow> rows, Writer writer) throws IOException {
+        ObjectWriter productWriter = objectMapper.writerFor(ProductResponse.class);
+        ProductResponse current = null;
+        while (rows.hasNext()) {
+            ProductExportRow row = rows.next();
+            if (current == null || !current.getId().equals(row.getProductId())) {
+                if (current != null) {
+                    writer.write(productWriter.writeValueAsString(current));
+                    writer.write('\n');
+                }
+                current = ProductResponse.builder()
+                        .id(row.getProductId())
+                        .productName(row.getProductName())
+                        .createdBy(row.getCreatedBy())
+                        .createdOn(row.getCreatedOn())
+                        .modifiedBy(row.getModifiedBy())
+                        .modifiedOn(row.getModifiedOn())
+                        .items(new ArrayList<>())
+                        .build();
+            }
+            if (row.getItemId() != null) {
+                current.getItems().add(new ItemResponse(row.getItemId(), row.getQuantity()));
+            }
+        }
+        if (current != null) {
+            writer.write(productWriter.writeValueAsString(current));
+            writer.write('\n');
+        }
+    }
+
+    private void writeCsv(Iterator<ProductExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            ProductExportRow row = rows.next();
+            writer.write(String.valueOf(row.getProductId()));
+            writer.write(',');
+            writer.write(csvField(row.getProductName()));
+            writer.write(',');
+            writer.write(csvField(row.getCreatedBy()));
+            writer.write(',');
+            writer.write(csvField(row.getCreatedOn()));
+            writer.write(',');
+            writer.write(csvField(row.getModifiedBy()));
+            writer.write(',');
+            writer.write(csvField(row.getModifiedOn()));
+            writer.write(',');
+            writer.write(csvField(row.getItemId()));
+            writer.write(',');
+            writer.write(csvField(row.getQuantity()));
+            writer.write('\n');
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
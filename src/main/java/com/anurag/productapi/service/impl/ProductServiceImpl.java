@@ -1,38 +1,137 @@
 package com.anurag.productapi.service.impl;
 
 
+import com.anurag.productapi.cache.ProductCache;
 import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.CursorPageResponse;
+import com.anurag.productapi.dto.response.ItemResponse;
 import com.anurag.productapi.dto.response.ProductResponse;
 import com.anurag.productapi.entity.Item;
 import com.anurag.productapi.entity.Product;
+import com.anurag.productapi.enums.ProductChangeOperation;
 import com.anurag.productapi.exception.ResourceNotFoundException;
 import com.anurag.productapi.mapper.ProductMapper;
+import com.anurag.productapi.pagination.ProductCursor;
+import com.anurag.productapi.repository.ItemRepository;
 import com.anurag.productapi.repository.ProductRepository;
+import com.anurag.productapi.service.ProductChangeService;
 import com.anurag.productapi.service.ProductService;
+import com.anurag.productapi.stream.ProductChangeBroadcaster;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ItemRepository itemRepository;
+    private final ProductCache productCache;
+    private final ProductChangeService productChangeService;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(ProductMapper::toProductResponse);
+        // Page over ids first, then load the whole page with its items in one query,
+        // instead of letting every row lazily load its own items (N+1)
+        Page<Integer> idPage = productRepository.findPageOfIds(pageable);
+        List<ProductResponse> content = loadInIdOrder(idPage.getContent()).stream()
+                .map(ProductMapper::toProductResponse)
+                .toList();
+        return new PageImpl<>(content, pageable, idPage.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsAfter(String cursor, int size) {
+        // Ask for one extra id to learn whether another page exists without counting
+        Limit limit = Limit.of(size + 1);
+        List<Integer> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = productRepository.findFirstIdsByCreatedOn(limit);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            ids = productRepository.findIdsByCreatedOnAfter(after.createdOn(), after.id(), limit);
+        }
+
+        boolean hasNext = ids.size() > size;
+        List<Product> products = loadInIdOrder(hasNext ? ids.subList(0, size) : ids);
+
+        String next = null;
+        if (hasNext && !products.isEmpty()) {
+            Product last = products.get(products.size() - 1);
+            next = new ProductCursor(last.getCreatedOn(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(products.stream().map(ProductMapper::toProductResponse).toList())
+                .size(size)
+                .next(next)
+                .build();
+    }
+
+    // Loads the products with their items in one query, keeping the order of the given ids
+    // and skipping rows deleted in the meantime
+    private List<Product> loadInIdOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Product> productsById = productRepository.findAllWithItemsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
     public ProductResponse getProductById(Integer id) {
+        return productCache.get(id, this::loadProduct);
+    }
+
+    @Override
+    public Slice<ItemResponse> getItemsByProductId(Integer id, Pageable pageable) {
+        Slice<ItemResponse> items = itemRepository.findItemsByProductId(id, pageable);
+        // Only an empty slice needs the existence check, to tell "no items" from "no product"
+        if (!items.hasContent() && !productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return items;
+    }
+
+    @Override
+    public LocalDateTime getLastModified(Integer id) {
+        // A cached response is invalidated on every write, so its stamp is as fresh as the cache
+        ProductResponse cached = productCache.peek(id);
+        if (cached != null) {
+            return cached.getModifiedOn() != null ? cached.getModifiedOn() : cached.getCreatedOn();
+        }
+        return productRepository.findLastModifiedById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+    }
+
+    private ProductResponse loadProduct(Integer id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         return ProductMapper.toProductResponse(product);
@@ -42,15 +141,37 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Product product = newProduct(request, username, LocalDateTime.now());
+        Product saved = productRepository.save(product);
+        recordChanges(List.of(saved.getId()), ProductChangeOperation.CREATED);
+        return ProductMapper.toProductResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<ProductResponse> createProducts(List<ProductRequest> requests) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = requests.stream()
+                .map(request -> newProduct(request, username, now))
+                .toList();
+        // Inserts are deferred to flush, where Hibernate orders and batches them per table
+        List<Product> saved = productRepository.saveAll(products);
+        recordChanges(saved.stream().map(Product::getId).toList(), ProductChangeOperation.CREATED);
+        return saved.stream()
+                .map(ProductMapper::toProductResponse)
+                .toList();
+    }
+
+    private Product newProduct(ProductRequest request, String username, LocalDateTime createdOn) {
         Product product = ProductMapper.toProductEntity(request);
         if (product.getItems() != null) {
             product.getItems().forEach(item -> item.setProduct(product));
         }
-        product.setCreatedOn(LocalDateTime.now());
-
+        // Truncate to the database's precision so keyset cursors compare equal to stored values
+        product.setCreatedOn(createdOn.truncatedTo(ChronoUnit.MICROS));
         product.setCreatedBy(username);
-        Product saved = productRepository.save(product);
-        return ProductMapper.toProductResponse(saved);
+        return product;
     }
 
     @Override
@@ -64,28 +185,72 @@ public class ProductServiceImpl implements ProductService {
         // Update audit fields
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         existingProduct.setModifiedBy(username);
-        existingProduct.setModifiedOn(LocalDateTime.now());
-
-        // Replace old items with new ones to trigger orphan removal
-        existingProduct.getItems().clear();
-        if (request.getItems() != null) {
-            List<Item> newItems = request.getItems().stream()
-                    .map(ProductMapper::toItemEntity)
-                    .peek(item -> item.setProduct(existingProduct))
-                    .toList();
-            existingProduct.getItems().addAll(newItems);
-        }
+        existingProduct.setModifiedOn(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+
+        mergeItems(existingProduct, request.getItems());
 
         Product updated = productRepository.save(existingProduct);
+        recordChanges(List.of(id), ProductChangeOperation.UPDATED);
+        productCache.evictAfterCommit(id);
         return ProductMapper.toProductResponse(updated);
     }
 
+    // Matches requested items to existing ones by id instead of replacing the whole collection,
+    // so only the rows that actually change are written: a changed quantity is one UPDATE
+    // (dirty checking skips unchanged ones), an item without id is an INSERT and an existing
+    // item left out of the request is a DELETE through orphan removal
+    private void mergeItems(Product product, List<ProductRequest.ItemRequest> requestedItems) {
+        if (product.getItems() == null) {
+            product.setItems(new ArrayList<>());
+        }
+        Map<Integer, Item> unmatched = product.getItems().stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Item> newItems = new ArrayList<>();
+        if (requestedItems != null) {
+            for (ProductRequest.ItemRequest itemRequest : requestedItems) {
+                if (itemRequest.getId() == null) {
+                    Item item = ProductMapper.toItemEntity(itemRequest);
+                    item.setProduct(product);
+                    newItems.add(item);
+                    continue;
+                }
+                Item existing = unmatched.remove(itemRequest.getId());
+                if (existing == null) {
+                    throw new ResourceNotFoundException(
+                            "Item not found with id: " + itemRequest.getId() + " for product with id: " + product.getId());
+                }
+                existing.setQuantity(itemRequest.getQuantity());
+            }
+        }
+
+        // Removed by id: Item's equals/hashCode walk back into the product
+        product.getItems().removeIf(item -> unmatched.containsKey(item.getId()));
+        product.getItems().addAll(newItems);
+    }
+
     @Override
     @Transactional
     public void deleteProduct(Integer id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        if (deleteProducts(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int deleteProducts(Collection<Integer> ids) {
+        Set<Integer> distinctIds = new HashSet<>(ids);
+        // Recorded while the rows still exist, so unknown ids get no change record
+        recordChanges(distinctIds, ProductChangeOperation.DELETED);
+        itemRepository.deleteByProductIdIn(distinctIds);
+        int deleted = productRepository.deleteByIdIn(distinctIds);
+        distinctIds.forEach(productCache::evictAfterCommit);
+        return deleted;
+    }
 
-        productRepository.deleteById(id);
+    // Appends to the change feed in this transaction and pushes to stream subscribers once it commits
+    private void recordChanges(Collection<Integer> productIds, ProductChangeOperation operation) {
+        productChangeBroadcaster.publishAfterCommit(productChangeService.recordChanges(productIds, operation));
     }
-}
\ No newline at end of file
+}
@@ -5,37 +5,83 @@ import com.anurag.productapi.entity.RefreshToken;
 import com.anurag.productapi.entity.User;
 import com.anurag.productapi.exception.TokenRefreshException;
 import com.anurag.productapi.repository.RefreshTokenRepository;
+import com.anurag.productapi.security.TokenDigests;
 import com.anurag.productapi.service.RefreshTokenService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.UUID;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.jwt.refreshTokenStore.type", havingValue = "jpa", matchIfMissing = true)
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
+    // 256 bits of randomness; only its digest is stored
+    private static final int TOKEN_BYTES = 32;
+
     private final RefreshTokenRepository repository;
 
     @Value("${app.jwt.refreshExpirationMs}")
     private Long refreshTokenDurationMs;
 
+    @Value("${app.jwt.maxSessionsPerUser}")
+    private int maxSessionsPerUser;
+
+    // Every login needs room for its own session; fail at startup rather than on each login
+    @PostConstruct
+    public void validateSessionCap() {
+        if (maxSessionsPerUser < 1) {
+            throw new IllegalArgumentException("app.jwt.maxSessionsPerUser must be at least 1, was " + maxSessionsPerUser);
+        }
+    }
+
     @Override
     @Transactional
     public RefreshToken createRefreshToken(User user) {
 
-        repository.deleteByUser(user); // refresh token rotation
+        // Make room for the new session by ending the oldest ones past the cap
+        List<Long> sessionIds = repository.findSessionIdsNewestFirst(user);
+        if (sessionIds.size() >= maxSessionsPerUser) {
+            repository.deleteByIdIn(sessionIds.subList(maxSessionsPerUser - 1, sessionIds.size()));
+        }
 
-        RefreshToken token = RefreshToken.builder()
+        String rawToken = TokenDigests.randomToken(TOKEN_BYTES);
+        RefreshToken token = repository.save(RefreshToken.builder()
                 .user(user)
-                .token(UUID.randomUUID().toString())
+                .tokenHash(TokenDigests.sha256(rawToken))
                 .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-                .build();
+                .build());
+
+        token.setToken(rawToken);
+        return token;
+    }
+
+    @Override
+    @Transactional
+    public RefreshToken rotate(RefreshToken token) {
+        String newToken = TokenDigests.randomToken(TOKEN_BYTES);
+        byte[] newHash = TokenDigests.sha256(newToken);
+        Instant expiryDate = Instant.now().plusMillis(refreshTokenDurationMs);
+
+        // In-place UPDATE of the session row: no delete/insert, and a second concurrent refresh matches nothing
+        if (repository.rotate(token.getId(), token.getTokenHash(), newHash, expiryDate) == 0) {
+            throw new TokenRefreshException(token.getToken(), "Refresh token was already used");
+        }
 
-        return repository.save(token);
+        return RefreshToken.builder()
+                .id(token.getId())
+                .user(token.getUser())
+                .tokenHash(newHash)
+                .token(newToken)
+                .expiryDate(expiryDate)
+                .build();
     }
 
     @Override
@@ -57,8 +103,26 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     @Override
     public RefreshToken findByToken(String token) {
-        return repository.findByToken(token)
+        // The index lookup compares digests, whose bytes the caller cannot steer; the constant-time
+        // re-check keeps the in-memory comparison independent of the token contents as well
+        byte[] tokenHash = TokenDigests.sha256(token);
+        RefreshToken refreshToken = repository.findByTokenHash(tokenHash)
+                .filter(found -> TokenDigests.matches(found.getTokenHash(), tokenHash))
                 .orElseThrow(() ->
                         new TokenRefreshException(token, "Refresh token is not in database!"));
+
+        refreshToken.setToken(token);
+        return refreshToken;
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(Instant now, int batchSize) {
+        // Select then delete by primary key, so each transaction locks at most batchSize rows
+        List<Long> expiredIds = repository.findExpiredIds(now, Limit.of(batchSize));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        return repository.deleteByIdIn(expiredIds);
     }
 }
\ No newline at end of file
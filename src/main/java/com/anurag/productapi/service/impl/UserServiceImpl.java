@@ -1,21 +1,40 @@
 package com.anurag.productapi.service.impl;
 
 
+import com.anurag.productapi.cache.TokenVersionCache;
 import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.exception.ResourceNotFoundException;
 import com.anurag.productapi.repository.UserRepository;
+import com.anurag.productapi.security.UserDetailsServiceImpl;
+import com.anurag.productapi.service.NotificationService;
+import com.anurag.productapi.service.RefreshTokenService;
 import com.anurag.productapi.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final NotificationService notificationService;
 
     @Override
+    @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        boolean newUser = user.getId() == null;
+        User saved = userRepository.save(user);
+        userDetailsService.evictAfterCommit(saved.getUsername());
+        // Same transaction as the user row: the email is queued if and only if the signup commits
+        if (newUser) {
+            notificationService.enqueueWelcomeEmail(saved.getUsername());
+        }
+        return saved;
     }
 
     @Override
@@ -24,4 +43,40 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() ->
                         new RuntimeException("User not found: " + username));
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public void revokeTokens(String username) {
+        User user = loadUser(username);
+        bumpTokenVersion(user);
+        refreshTokenService.deleteByUser(user);
+    }
+
+    @Override
+    @Transactional
+    public void changeRole(String username, Roles role) {
+        User user = loadUser(username);
+        user.setRole(role);
+        bumpTokenVersion(user);
+    }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(User user, String encodedPassword) {
+        userRepository.updatePassword(user.getId(), encodedPassword);
+        userDetailsService.evictAfterCommit(user.getUsername());
+    }
+
+    private User loadUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    }
+
+    private void bumpTokenVersion(User user) {
+        long current = user.getTokenVersion() != null ? user.getTokenVersion() : 0L;
+        user.setTokenVersion(current + 1);
+        tokenVersionCache.evictAfterCommit(user.getUsername());
+        // Logins must not issue tokens from a cached user with the old version or role
+        userDetailsService.evictAfterCommit(user.getUsername());
+    }
+}
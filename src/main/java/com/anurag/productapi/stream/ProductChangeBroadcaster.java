@@ -0,0 +1,363 @@
+package com.anurag.productapi.stream;
+
+import com.anurag.productapi.cache.AfterCommit;
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.exception.ChangeFeedExpiredException;
+import com.anurag.productapi.exception.ServiceOverloadedException;
+import com.anurag.productapi.service.ProductChangeService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes product changes to Server-Sent Events subscribers once the writing transaction commits.
+ * <p>
+ * A commit does not push its own changes: a sequence number is taken at insert time, so transactions commit
+ * out of sequence order. It wakes a single feed reader instead, which follows the change feed from the last
+ * settled sequence number and pushes the changes in sequence order, holding back those after a gap until the
+ * gap is filled or times out ({@link ProductChangeService#getChangesSince}). While a committed change is held
+ * back, the reader looks again every {@code gapRetryMs}. An event id is therefore a low watermark: every
+ * change up to it was sent before it.
+ * <p>
+ * A subscription is an asynchronous request that holds no thread while idle. Each subscriber has a bounded
+ * queue, drained by a small shared pool of sender threads, at most one at a time per subscriber. A subscriber
+ * whose queue overflows is dropped with a {@value #RESYNC_EVENT} event carrying the sequence number to resume
+ * from. Change events carry their change feed sequence number as id, so a reconnecting client resumes from
+ * its Last-Event-ID: the changes it missed are replayed from the change feed once, never polled.
+ * <p>
+ * Writes to a client that stopped reading block its sender thread until the container's write timeout;
+ * queues of the other subscribers keep filling meanwhile, so {@code senderThreads} should cover the number
+ * of clients expected to stall at once.
+ */
+@Slf4j
+@Component
+public class ProductChangeBroadcaster {
+
+    public static final String CHANGE_EVENT = "product-change";
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final long OVERLOADED_RETRY_AFTER_SECONDS = 5;
+
+    // Queued like a change, so a subscriber that stopped reading overflows even when nothing changes
+    private static final ProductChangeResponse HEARTBEAT = new ProductChangeResponse();
+
+    private final ProductChangeService productChangeService;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final int replayLimit;
+    private final long timeoutMs;
+    private final long gapRetryMs;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService feedReader;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // Highest sequence number known to be committed, and whether a read of the feed is already on its way
+    private final AtomicLong committedThrough = new AtomicLong();
+    private final AtomicBoolean readRequested = new AtomicBoolean();
+    // Every change up to it was published; used only by the feed reader thread
+    private long publishedThrough;
+
+    /**
+     * Data of a {@value #RESYNC_EVENT} event. With a {@code resumeFrom}, reconnect from it (an EventSource does,
+     * as it is also the event id); without one, re-read the catalog and subscribe afresh.
+     */
+    public record Resync(Long resumeFrom) {
+    }
+
+    public ProductChangeBroadcaster(ProductChangeService productChangeService,
+                                    @Value("${app.productStream.maxSubscribers}") int maxSubscribers,
+                                    @Value("${app.productStream.queueCapacity}") int queueCapacity,
+                                    @Value("${app.productStream.replayLimit}") int replayLimit,
+                                    @Value("${app.productStream.timeoutMs}") long timeoutMs,
+                                    @Value("${app.productStream.senderThreads}") int senderThreads,
+                                    @Value("${app.productStream.gapRetryMs}") long gapRetryMs) {
+        this.productChangeService = productChangeService;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.replayLimit = replayLimit;
+        this.timeoutMs = timeoutMs;
+        this.gapRetryMs = gapRetryMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // At most one task per subscriber is queued, so the queue is bounded by maxSubscribers
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.feedReader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Live delivery starts after the changes recorded before startup
+    @PostConstruct
+    public void start() {
+        long latest = productChangeService.latestSeq();
+        feedReader.execute(() -> publishedThrough = latest);
+    }
+
+    /**
+     * Opens a subscription. With {@code since}, the changes after it are replayed first; a client that is
+     * more than {@code replayLimit} changes behind gets a {@value #RESYNC_EVENT} event to continue from.
+     *
+     * @throws ServiceOverloadedException if {@code maxSubscribers} are already connected
+     */
+    public SseEmitter subscribe(Long since) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many product stream subscribers", OVERLOADED_RETRY_AFTER_SECONDS);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Registered before the replay reads the feed, so no change falls between the two; changes
+        // published meanwhile wait in the queue, as this thread still holds the sending flag
+        subscribers.add(subscriber);
+
+        try {
+            if (since != null && !replay(subscriber, since)) {
+                return emitter;
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            return emitter;
+        }
+
+        subscriber.sending.set(false);
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed) {
+            schedule(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Publishes the given changes to every subscriber once the surrounding transaction commits, in sequence
+     * order after every change with a lower sequence number.
+     */
+    public void publishAfterCommit(List<ProductChangeResponse> changes) {
+        if (!changes.isEmpty()) {
+            long highest = changes.stream().mapToLong(ProductChangeResponse::getSeq).max().getAsLong();
+            AfterCommit.run(() -> {
+                committedThrough.accumulateAndGet(highest, Math::max);
+                requestRead();
+            });
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds subscribers that stopped reading
+    @Scheduled(fixedDelayString = "${app.productStream.heartbeatMs}",
+            initialDelayString = "${app.productStream.heartbeatMs}")
+    public void heartbeat() {
+        publish(List.of(HEARTBEAT));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        feedReader.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void requestRead() {
+        if (readRequested.compareAndSet(false, true)) {
+            feedReader.execute(this::readFeed);
+        }
+    }
+
+    // Runs on the feed reader thread only
+    private void readFeed() {
+        readRequested.set(false); // Commits from here on need another read
+        try {
+            ProductChangeFeedResponse feed;
+            do {
+                feed = productChangeService.getChangesSince(publishedThrough, replayLimit);
+                publish(feed.getChanges());
+                publishedThrough = feed.getNext();
+            } while (feed.isHasMore());
+        } catch (ChangeFeedExpiredException e) {
+            // Only when the reader fell behind retention, or the first writes ever were rolled back
+            log.warn("Product stream skipping to sequence {}: {}", e.getResumeFrom(), e.getMessage());
+            publishedThrough = e.getResumeFrom();
+            requestRead();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Reading the change feed for the product stream failed, retrying", e);
+        }
+        // A committed change is held back behind a gap; a later commit or the gap timeout settles it
+        if (publishedThrough < committedThrough.get() && !feedReader.isShutdown()) {
+            feedReader.schedule(this::requestRead, gapRetryMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Fans settled changes, in sequence order, or a heartbeat out to every subscriber
+    void publish(List<ProductChangeResponse> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            for (ProductChangeResponse change : changes) {
+                if (!subscriber.queue.offer(change)) {
+                    if (change != HEARTBEAT) {
+                        subscriber.firstMissed.accumulateAndGet(change.getSeq(), Math::min);
+                    }
+                    subscriber.overflowed = true;
+                    subscribers.remove(subscriber);
+                    break;
+                }
+            }
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Runs while holding the subscriber's sending flag; releases it once the queue is empty
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.overflowed) {
+                    dropSlowSubscriber(subscriber);
+                    return; // Keeps the flag: nothing is sent after the resync
+                }
+                ProductChangeResponse change = subscriber.queue.poll();
+                if (change != null) {
+                    send(subscriber, change);
+                    continue;
+                }
+                subscriber.sending.set(false);
+                // A change queued after the poll found the flag still held and left it to this task
+                boolean pending = !subscriber.queue.isEmpty() || subscriber.overflowed;
+                if (!pending || !subscriber.sending.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or subscription timed out; the container completes the request
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private boolean replay(Subscriber subscriber, long since) throws IOException {
+        ProductChangeFeedResponse feed;
+        try {
+            feed = productChangeService.getChangesSince(since, replayLimit);
+        } catch (ChangeFeedExpiredException e) {
+            // The missed changes are gone; only a full re-read catches up
+            resync(subscriber, null);
+            return false;
+        }
+
+        for (ProductChangeResponse change : feed.getChanges()) {
+            send(subscriber, change);
+        }
+        subscriber.sentThrough = feed.getNext();
+        if (feed.isHasMore()) {
+            resync(subscriber, feed.getNext());
+            return false;
+        }
+        // The replay ends at the feed's settled position, and the feed reader only publishes settled changes,
+        // so every change after it is still to come live; those published while replaying may be replayed already
+        subscriber.replayedThrough = feed.getNext();
+        return true;
+    }
+
+    private void send(Subscriber subscriber, ProductChangeResponse change) throws IOException {
+        if (change == HEARTBEAT) {
+            subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+        if (change.getSeq() <= subscriber.replayedThrough) {
+            return;
+        }
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(change.getSeq()))
+                .name(CHANGE_EVENT)
+                .data(change, MediaType.APPLICATION_JSON));
+        subscriber.sentThrough = change.getSeq();
+    }
+
+    private void dropSlowSubscriber(Subscriber subscriber) throws IOException {
+        droppedCount.incrementAndGet();
+        List<ProductChangeResponse> missed = new ArrayList<>();
+        subscriber.queue.drainTo(missed);
+        long firstMissed = subscriber.firstMissed.get();
+        for (ProductChangeResponse change : missed) {
+            if (change != HEARTBEAT) {
+                firstMissed = Math.min(firstMissed, change.getSeq());
+            }
+        }
+        // Resuming before the first missed change replays it; replaying a change twice is harmless
+        Long resumeFrom = firstMissed != Long.MAX_VALUE ? Long.valueOf(firstMissed - 1) : subscriber.sentThrough;
+        log.debug("Dropping slow product stream subscriber with {} queued events, resuming from {}",
+                missed.size(), resumeFrom);
+        resync(subscriber, resumeFrom);
+    }
+
+    private void resync(Subscriber subscriber, Long resumeFrom) throws IOException {
+        subscribers.remove(subscriber);
+        // An empty id clears the client's last event id, so it does not resume from a stale one
+        subscriber.emitter.send(SseEmitter.event()
+                .id(resumeFrom != null ? String.valueOf(resumeFrom) : "")
+                .name(RESYNC_EVENT)
+                .data(new Resync(resumeFrom), MediaType.APPLICATION_JSON));
+        subscriber.emitter.complete();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<ProductChangeResponse> queue;
+        // Whoever holds it is the only one writing to the emitter: the subscribing request while it
+        // replays, then at most one sender task at a time
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+        private final AtomicLong firstMissed = new AtomicLong(Long.MAX_VALUE);
+        private volatile boolean overflowed;
+        // Written only while holding the sending flag
+        private Long sentThrough;
+        private long replayedThrough = Long.MIN_VALUE;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<ProductChangeResponse> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
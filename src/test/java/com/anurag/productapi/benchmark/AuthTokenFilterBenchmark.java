@@ -0,0 +1,103 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.cache.TokenVersionCache;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.observability.RequestMetrics;
+import com.anurag.productapi.ratelimit.RateLimitFilter;
+import com.anurag.productapi.repository.UserRepository;
+import com.anurag.productapi.security.AuthTokenFilter;
+import com.anurag.productapi.security.JwtUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the access token filter per request, from the Authorization header to an authenticated security
+ * context: with and without the verified-token cache, and for anonymous and rejected requests. The token
+ * version is always served from {@link TokenVersionCache}, as it is for active users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class AuthTokenFilterBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyThatIsLongEnoughForHmacSha256";
+
+    @Param({"0", "10000"})
+    private long verifiedCacheMaxSize;
+
+    private AuthTokenFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private MockHttpServletRequest invalid;
+    private MockHttpServletResponse response;
+
+    // Stands in for SecurityContextHolderFilter, which clears the context once the request is done
+    private final FilterChain chain = (request, response) -> SecurityContextHolder.clearContext();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 300_000L);
+        jwtUtils.init();
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionByUsername("benchmark-user")).thenReturn(Optional.of(0L));
+        TokenVersionCache tokenVersionCache = new TokenVersionCache(userRepository, 10_000, 300_000);
+
+        // Rate limiting off: the invalid-token budget would otherwise turn most rejections into 429s
+        RateLimitFilter rateLimitFilter = new RateLimitFilter(false, "ANONYMOUS:1,USER:1,ADMIN:1",
+                "ANONYMOUS:1,USER:1,ADMIN:1", 1, 1, 60_000);
+        filter = new AuthTokenFilter(jwtUtils, tokenVersionCache, new RequestMetrics(60_000, 2), rateLimitFilter);
+
+        String token = jwtUtils.generateToken(
+                User.builder().username("benchmark-user").role(Roles.USER).tokenVersion(0L).build());
+        authenticated = request("Bearer " + token);
+        anonymous = request(null);
+        invalid = request("Bearer " + token.substring(0, token.length() - 4) + "AAAA");
+        response = new MockHttpServletResponse();
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse validToken() throws ServletException, IOException {
+        filter.doFilter(authenticated, response, chain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse noToken() throws ServletException, IOException {
+        filter.doFilter(anonymous, response, chain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse invalidSignature() throws ServletException, IOException {
+        // Rejections write a body; start from an empty response so it does not grow across invocations
+        response.reset();
+        filter.doFilter(invalid, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,162 @@
+package com.anurag.productapi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with a saved baseline, run by the {@code benchmark} profile after the benchmarks.
+ * <p>
+ * A benchmark regressed when its score is worse than the baseline by more than the threshold (lower throughput,
+ * or higher time per operation) and by more than the two error margins combined, so noise alone does not flag
+ * it. Saving merges the result into the baseline, so a run of a subset only replaces those benchmarks.
+ * Scores only compare between runs on the same machine.
+ * <p>
+ * Arguments: result file, baseline file, threshold (0.10 = 10%), fail on regression, save as baseline.
+ */
+public final class JmhBaselineComparison {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    enum Verdict {
+        REGRESSED,
+        IMPROVED,
+        UNCHANGED,
+        NEW
+    }
+
+    record Comparison(String benchmark, String unit, double baseline, double current, double change, Verdict verdict) {
+    }
+
+    private JmhBaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            throw new IllegalArgumentException(
+                    "Usage: JmhBaselineComparison <result> <baseline> <threshold> <failOnRegression> <saveBaseline>");
+        }
+        Path resultFile = Path.of(args[0]);
+        Path baselineFile = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean failOnRegression = Boolean.parseBoolean(args[3]);
+        boolean saveBaseline = Boolean.parseBoolean(args[4]);
+
+        JsonNode result = MAPPER.readTree(resultFile.toFile());
+        JsonNode baseline = Files.exists(baselineFile) ? MAPPER.readTree(baselineFile.toFile()) : null;
+
+        if (saveBaseline) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), merge(baseline, result));
+            System.out.println("Saved " + result.size() + " benchmark results to baseline " + baselineFile);
+            return;
+        }
+        if (baseline == null) {
+            System.out.println("No benchmark baseline at " + baselineFile + "; save one with -Djmh.saveBaseline=true");
+            return;
+        }
+
+        List<Comparison> comparisons = compare(result, baseline, threshold);
+        comparisons.forEach(comparison -> System.out.println(format(comparison)));
+        long regressions = comparisons.stream().filter(c -> c.verdict() == Verdict.REGRESSED).count();
+        System.out.printf(Locale.ROOT, "%d of %d benchmarks regressed by more than %.0f%% against %s%n",
+                regressions, comparisons.size(), threshold * 100, baselineFile);
+        if (regressions > 0 && failOnRegression) {
+            System.exit(1);
+        }
+    }
+
+    static List<Comparison> compare(JsonNode result, JsonNode baseline, double threshold) {
+        Map<String, JsonNode> baselineByKey = byKey(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (JsonNode run : result) {
+            String key = key(run);
+            JsonNode metric = run.get("primaryMetric");
+            double current = metric.get("score").asDouble();
+            String unit = metric.get("scoreUnit").asText();
+            JsonNode previous = baselineByKey.get(key);
+            // A changed unit means a changed benchmark; its scores do not compare
+            if (previous == null || !unit.equals(previous.get("primaryMetric").get("scoreUnit").asText())) {
+                comparisons.add(new Comparison(key, unit, Double.NaN, current, Double.NaN, Verdict.NEW));
+                continue;
+            }
+
+            JsonNode previousMetric = previous.get("primaryMetric");
+            double base = previousMetric.get("score").asDouble();
+            double change = (current - base) / base;
+            double noise = error(metric) + error(previousMetric);
+            boolean higherIsBetter = "thrpt".equals(run.get("mode").asText());
+            double worsening = higherIsBetter ? -change : change;
+
+            Verdict verdict = Verdict.UNCHANGED;
+            if (Math.abs(change) > threshold && Math.abs(current - base) > noise) {
+                verdict = worsening > 0 ? Verdict.REGRESSED : Verdict.IMPROVED;
+            }
+            comparisons.add(new Comparison(key, unit, base, current, change, verdict));
+        }
+        return comparisons;
+    }
+
+    static ArrayNode merge(JsonNode baseline, JsonNode result) {
+        Map<String, JsonNode> merged = baseline != null ? byKey(baseline) : new LinkedHashMap<>();
+        for (JsonNode run : result) {
+            merged.put(key(run), run);
+        }
+        ArrayNode array = MAPPER.createArrayNode();
+        merged.values().forEach(array::add);
+        return array;
+    }
+
+    // The benchmark method, its mode and its parameters, e.g. "ProductMapperBenchmark.toProductResponse avgt items=100"
+    static String key(JsonNode run) {
+        String benchmark = run.get("benchmark").asText();
+        int methodDot = benchmark.lastIndexOf('.');
+        StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', methodDot - 1) + 1))
+                .append(' ').append(run.get("mode").asText());
+        JsonNode params = run.get("params");
+        if (params != null) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = params.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sorted.put(field.getKey(), field.getValue().asText());
+            }
+            sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        }
+        return key.toString();
+    }
+
+    private static Map<String, JsonNode> byKey(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            byKey.put(key(run), run);
+        }
+        return byKey;
+    }
+
+    // JMH writes "NaN" when there were too few iterations to estimate the error
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(Comparison comparison) {
+        if (comparison.verdict() == Verdict.NEW) {
+            return String.format(Locale.ROOT, "%-9s %s: %.3f %s (no baseline)",
+                    comparison.verdict(), comparison.benchmark(), comparison.current(), comparison.unit());
+        }
+        return String.format(Locale.ROOT, "%-9s %s: %.3f -> %.3f %s (%+.1f%%)",
+                comparison.verdict(), comparison.benchmark(), comparison.baseline(), comparison.current(),
+                comparison.unit(), comparison.change() * 100);
+    }
+}
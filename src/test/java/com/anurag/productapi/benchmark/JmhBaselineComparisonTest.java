@@ -0,0 +1,66 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.benchmark.JmhBaselineComparison.Comparison;
+import com.anurag.productapi.benchmark.JmhBaselineComparison.Verdict;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JmhBaselineComparisonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode results(String... runs) throws Exception {
+        return objectMapper.readTree("[" + String.join(",", runs) + "]");
+    }
+
+    private static String run(String method, String mode, String items, double score, String error) {
+        return """
+                {"benchmark": "com.anurag.productapi.benchmark.ProductMapperBenchmark.%s", "mode": "%s",
+                 "params": {"items": "%s"},
+                 "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "us/op"}}
+                """.formatted(method, mode, items, score, error);
+    }
+
+    @Test
+    void compare_FlagsChangesBeyondThresholdAndNoise() throws Exception {
+        JsonNode baseline = results(
+                run("toProductResponse", "avgt", "10", 1.0, "0.01"),
+                run("toProductResponse", "avgt", "100", 10.0, "0.1"),
+                run("toProductEntity", "avgt", "10", 1.0, "0.5"),
+                run("toProductEntity", "thrpt", "10", 100.0, "1"));
+        JsonNode result = results(
+                run("toProductResponse", "avgt", "10", 1.5, "0.01"),
+                run("toProductResponse", "avgt", "100", 8.0, "0.1"),
+                // 40% slower, but within the error margins
+                run("toProductEntity", "avgt", "10", 1.4, "0.5"),
+                // Higher throughput is better
+                run("toProductEntity", "thrpt", "10", 80.0, "\"NaN\""),
+                run("toProductEntity", "avgt", "1000", 100.0, "1"));
+
+        List<Comparison> comparisons = JmhBaselineComparison.compare(result, baseline, 0.10);
+
+        assertEquals(List.of(Verdict.REGRESSED, Verdict.IMPROVED, Verdict.UNCHANGED, Verdict.REGRESSED, Verdict.NEW),
+                comparisons.stream().map(Comparison::verdict).toList());
+        assertEquals("ProductMapperBenchmark.toProductResponse avgt items=10", comparisons.get(0).benchmark());
+        assertEquals(0.5, comparisons.get(0).change(), 1e-9);
+    }
+
+    @Test
+    void merge_ReplacesOnlyTheBenchmarksThatRan() throws Exception {
+        JsonNode baseline = results(
+                run("toProductResponse", "avgt", "10", 1.0, "0.01"),
+                run("toProductEntity", "avgt", "10", 2.0, "0.01"));
+        JsonNode result = results(run("toProductEntity", "avgt", "10", 3.0, "0.01"));
+
+        JsonNode merged = JmhBaselineComparison.merge(baseline, result);
+
+        assertEquals(2, merged.size());
+        assertEquals(1.0, merged.get(0).get("primaryMetric").get("score").asDouble());
+        assertEquals(3.0, merged.get(1).get("primaryMetric").get("score").asDouble());
+    }
+}
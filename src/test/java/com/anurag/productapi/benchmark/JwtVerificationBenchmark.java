@@ -0,0 +1,75 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.security.JwtUtils;
+import com.anurag.productapi.security.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing an access token at login, and of authenticating one request's access token: the previous
+ * filter (two parsers built, two signature checks), a single parse with the shared parser, and a hit in the
+ * verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyThatIsLongEnoughForHmacSha256";
+
+    private Key key;
+    private User user;
+    private String token;
+    private JwtUtils uncached;
+    private JwtUtils cached;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        uncached = jwtUtils(0);
+        cached = jwtUtils(10_000);
+        user = User.builder().username("benchmark-user").role(Roles.USER).tokenVersion(0L).build();
+        token = uncached.generateToken(user);
+    }
+
+    private static JwtUtils jwtUtils(long verifiedCacheMaxSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 300_000L);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken(user);
+    }
+
+    // What AuthTokenFilter used to do: validateJwtToken followed by getUsernameFromToken
+    @Benchmark
+    public String parseTwiceWithFreshParsers() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerification() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,40 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.security.ConfigurablePasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second and core at different BCrypt cost factors: a login's CPU time is one
+ * {@code matches} call. Use it to pick {@code app.passwordHashing.bcryptStrength} and the
+ * per-role costs for a deployment's expected login rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class PasswordHashingCostBenchmark {
+
+    private static final String PASSWORD = "securePass123";
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    private ConfigurablePasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new ConfigurablePasswordEncoder("bcrypt", strength, Map.of());
+        storedHash = encoder.encode(PASSWORD, Roles.USER);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,74 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.ProductManagementApiApplication;
+import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Rows (products + items) inserted per second when creating products one request at a time
+ * versus in one batch, against the in-memory H2 database of the test profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class ProductIngestionBenchmark {
+
+    private static final int PRODUCTS = 20;
+    private static final int ITEMS_PER_PRODUCT = 25;
+    private static final int ROWS = PRODUCTS * (1 + ITEMS_PER_PRODUCT);
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private List<ProductRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductManagementApiApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("benchmark", null, List.of()));
+
+        List<ProductRequest.ItemRequest> items = IntStream.rangeClosed(1, ITEMS_PER_PRODUCT)
+                .mapToObj(quantity -> ProductRequest.ItemRequest.builder().quantity(quantity).build())
+                .toList();
+        requests = IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> ProductRequest.builder().productName("Product " + i).items(items).build())
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void createOneByOne(Blackhole blackhole) {
+        for (ProductRequest request : requests) {
+            blackhole.consume(productService.createProduct(request));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ProductResponse> createBatch() {
+        return productService.createProducts(requests);
+    }
+}
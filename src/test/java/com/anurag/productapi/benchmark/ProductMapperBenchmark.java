@@ -0,0 +1,62 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.entity.Item;
+import com.anurag.productapi.entity.Product;
+import com.anurag.productapi.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of mapping one product between its entity and its request/response DTOs, by number of items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class ProductMapperBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int items;
+
+    private Product product;
+    private ProductRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        product = Product.builder()
+                .id(1)
+                .productName("Mechanical Keyboard")
+                .createdBy("benchmark")
+                .createdOn(now)
+                .modifiedBy("benchmark")
+                .modifiedOn(now)
+                .items(new ArrayList<>())
+                .build();
+        IntStream.rangeClosed(1, items)
+                .forEach(i -> product.getItems().add(Item.builder().id(i).quantity(i).product(product).build()));
+
+        List<ProductRequest.ItemRequest> itemRequests = IntStream.rangeClosed(1, items)
+                .mapToObj(i -> ProductRequest.ItemRequest.builder().quantity(i).build())
+                .toList();
+        request = ProductRequest.builder().productName("Mechanical Keyboard").items(itemRequests).build();
+    }
+
+    @Benchmark
+    public ProductResponse toProductResponse() {
+        return ProductMapper.toProductResponse(product);
+    }
+
+    @Benchmark
+    public Product toProductEntity() {
+        return ProductMapper.toProductEntity(request);
+    }
+}
@@ -0,0 +1,77 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.dto.response.CursorPageResponse;
+import com.anurag.productapi.dto.response.ItemResponse;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of writing a page of products as the JSON body of {@code GET /api/v1/products} (offset page) and
+ * {@code GET /api/v1/products/scroll} (keyset page), by page size, with an object mapper configured the way
+ * Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class ProductPageSerializationBenchmark {
+
+    private static final int ITEMS_PER_PRODUCT = 5;
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductResponse> offsetPage;
+    private CursorPageResponse<ProductResponse> cursorPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemResponse> items = IntStream.rangeClosed(1, ITEMS_PER_PRODUCT)
+                .mapToObj(i -> ItemResponse.builder().id(i).quantity(i).build())
+                .toList();
+        List<ProductResponse> products = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(i -> ProductResponse.builder()
+                        .id(i)
+                        .productName("Product " + i)
+                        .createdBy("benchmark")
+                        .createdOn(now)
+                        .modifiedBy("benchmark")
+                        .modifiedOn(now)
+                        .items(items)
+                        .build())
+                .toList();
+
+        offsetPage = new PageImpl<>(products, PageRequest.of(0, pageSize), 100_000);
+        cursorPage = CursorPageResponse.<ProductResponse>builder()
+                .content(products)
+                .size(pageSize)
+                .next("eyJjcmVhdGVkT24iOiIyMDI2LTAxLTAxVDAwOjAwOjAwIiwiaWQiOjEwMH0")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] offsetPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(offsetPage);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
@@ -0,0 +1,69 @@
+package com.anurag.productapi.benchmark;
+
+import com.anurag.productapi.ProductManagementApiApplication;
+import com.anurag.productapi.entity.RefreshToken;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.repository.UserRepository;
+import com.anurag.productapi.service.RefreshTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins (new session) and refreshes (lookup, expiry check, rotation) per second with the JPA store
+ * against the in-memory H2 database of the test profile, and with the in-memory store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class RefreshTokenStoreBenchmark {
+
+    @Param({"jpa", "memory"})
+    private String store;
+
+    private ConfigurableApplicationContext context;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+    private String currentToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductManagementApiApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0",
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--app.jwt.refreshTokenStore.type=" + store);
+        refreshTokenService = context.getBean(RefreshTokenService.class);
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark-user")
+                .password("hash")
+                .role(Roles.USER)
+                .build());
+        currentToken = refreshTokenService.createRefreshToken(user).getToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Past the session cap every login also ends the oldest session, as in steady state
+    @Benchmark
+    public RefreshToken login() {
+        return refreshTokenService.createRefreshToken(user);
+    }
+
+    // What AuthServiceImpl.refreshToken does with the store
+    @Benchmark
+    public RefreshToken refresh() {
+        RefreshToken refreshToken = refreshTokenService.findByToken(currentToken);
+        refreshTokenService.verifyExpiration(refreshToken);
+        RefreshToken rotated = refreshTokenService.rotate(refreshToken);
+        currentToken = rotated.getToken();
+        return rotated;
+    }
+}
@@ -0,0 +1,65 @@
+package com.anurag.productapi.cache;
+
+import com.anurag.productapi.dto.response.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(100, 60_000);
+    }
+
+    @Test
+    void get_SecondCallIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        ProductResponse product = ProductResponse.builder().id(1).productName("Cached").build();
+
+        productCache.get(1, id -> {
+            loads.incrementAndGet();
+            return product;
+        });
+        ProductResponse second = productCache.get(1, id -> {
+            loads.incrementAndGet();
+            return product;
+        });
+
+        assertSame(product, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, productCache.stats().getHitCount());
+        assertEquals(1, productCache.stats().getMissCount());
+    }
+
+    @Test
+    void get_InvalidationDuringLoad_DoesNotRepopulateStaleValue() {
+        ProductResponse stale = ProductResponse.builder().id(1).productName("Stale").build();
+        ProductResponse fresh = ProductResponse.builder().id(1).productName("Fresh").build();
+
+        // An update commits and invalidates while this load is still in flight
+        ProductResponse loaded = productCache.get(1, id -> {
+            productCache.evict(1);
+            return stale;
+        });
+
+        assertSame(stale, loaded);
+        assertSame(fresh, productCache.get(1, id -> fresh));
+    }
+
+    @Test
+    void evict_RemovesCachedValue() {
+        ProductResponse original = ProductResponse.builder().id(1).productName("Original").build();
+        ProductResponse updated = ProductResponse.builder().id(1).productName("Updated").build();
+        productCache.get(1, id -> original);
+
+        productCache.evict(1);
+
+        assertSame(updated, productCache.get(1, id -> updated));
+    }
+}
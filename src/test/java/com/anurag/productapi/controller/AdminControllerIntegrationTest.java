@@ -0,0 +1,62 @@
+package com.anurag.productapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class AdminControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getMetrics_ReportsRequestsAndExceptions() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(user("user").roles("USER")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/products/{id}", 999999).with(user("user").roles("USER")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/products").header("Authorization", "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/v1/admin/metrics").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_count{handler=\"ProductController.getAll\",status=\"200\"}")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds{handler=\"ProductController.getById\",status=\"404\",quantile=\"0.99\"}")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_count{handler=\"unmatched\",status=\"401\"}")))
+                .andExpect(content().string(containsString(
+                        "http_server_exceptions_total{exception=\"ResourceNotFoundException\",status=\"404\"}")))
+                .andExpect(content().string(containsString("auth_failures_total{reason=\"invalid_token\"}")));
+    }
+
+    @Test
+    void getCacheStats_IncludesTheVerifiedTokenCache() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/caches").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'verifiedTokens')]").exists());
+    }
+
+    @Test
+    void getMetrics_WithUserRole_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/metrics").with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -2,17 +2,34 @@ package com.anurag.productapi.controller;
 
 import com.anurag.productapi.dto.request.LoginRequest;
 import com.anurag.productapi.dto.request.SignupRequest;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.NotificationType;
+import com.anurag.productapi.enums.OutboxStatus;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.repository.NotificationOutboxRepository;
+import com.anurag.productapi.repository.UserRepository;
+import com.anurag.productapi.service.RefreshTokenService;
+import com.anurag.productapi.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -29,6 +46,21 @@ class AuthControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
     @Test
     void shouldSignupAndLoginSuccessfully() throws Exception {
         // 1. Signup
@@ -54,6 +86,25 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.refreshToken").exists());
     }
 
+    @Test
+    void shouldQueueWelcomeEmailWithSignup() throws Exception {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setUsername("outboxUser");
+        signupRequest.setPassword("securePass123");
+
+        mockMvc.perform(post("/api/v1/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk());
+
+        // Written by the signup transaction, nothing sent yet
+        List<NotificationOutbox> queued = notificationOutboxRepository.findAll();
+        assertEquals(1, queued.size());
+        assertEquals(NotificationType.WELCOME_EMAIL, queued.get(0).getType());
+        assertEquals("outboxUser", queued.get(0).getRecipient());
+        assertEquals(OutboxStatus.PENDING, queued.get(0).getStatus());
+    }
+
     @Test
     void shouldFailLoginWithWrongPassword() throws Exception {
         LoginRequest loginRequest = new LoginRequest();
@@ -65,4 +116,63 @@ class AuthControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized()); // Expect 401
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRehashLegacyPasswordOnLogin() throws Exception {
+        // Stored before the configurable encoder: no scheme prefix and a lower cost than configured
+        userRepository.save(User.builder()
+                .username("legacyUser")
+                .password(new BCryptPasswordEncoder(4).encode("securePass123"))
+                .role(Roles.USER)
+                .build());
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("legacyUser");
+        loginRequest.setPassword("securePass123");
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk());
+
+        entityManager.clear();
+        String storedHash = userRepository.findByUsername("legacyUser").orElseThrow().getPassword();
+        assertTrue(storedHash.startsWith("{bcrypt}$2a$10$"), storedHash);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // revocation takes effect on commit
+    void shouldRejectAccessTokenAfterRevocation() throws Exception {
+        SignupRequest signupRequest = new SignupRequest();
+        signupRequest.setUsername("revokedUser");
+        signupRequest.setPassword("securePass123");
+        mockMvc.perform(post("/api/v1/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk());
+
+        try {
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setUsername("revokedUser");
+            loginRequest.setPassword("securePass123");
+            String body = mockMvc.perform(post("/api/v1/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String accessToken = objectMapper.readTree(body).get("accessToken").asText();
+
+            mockMvc.perform(get("/api/v1/products").header("Authorization", "Bearer " + accessToken))
+                    .andExpect(status().isOk());
+
+            userService.revokeTokens("revokedUser");
+
+            mockMvc.perform(get("/api/v1/products").header("Authorization", "Bearer " + accessToken))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            userRepository.findByUsername("revokedUser").ifPresent(user -> {
+                refreshTokenService.deleteByUser(user);
+                userRepository.delete(user);
+            });
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.anurag.productapi.controller;
 
+import com.anurag.productapi.dto.request.ProductBatchRequest;
 import com.anurag.productapi.dto.request.ProductRequest;
 import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.observability.SqlStatementCountExtension;
+import com.anurag.productapi.observability.SqlStatementCountExtension.SqlStatements;
+import com.anurag.productapi.observability.SqlStatementCountFilter;
 import com.anurag.productapi.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,6 +19,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 import org.hamcrest.Matchers;
@@ -25,6 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
+@ExtendWith(SqlStatementCountExtension.class)
 class ProductControllerIntegrationTest {
 
     @Autowired
@@ -36,6 +44,9 @@ class ProductControllerIntegrationTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void createProduct_ReturnsCreatedStatus() throws Exception {
@@ -56,6 +67,46 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.productName").value("Mechanical Keyboard"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void createProductBatch_ReturnsCreatedProducts() throws Exception {
+        ProductBatchRequest request = ProductBatchRequest.builder()
+                .products(List.of(
+                        ProductRequest.builder()
+                                .productName("Batch Keyboard")
+                                .items(List.of(ProductRequest.ItemRequest.builder().quantity(2).build()))
+                                .build(),
+                        ProductRequest.builder()
+                                .productName("Batch Mouse")
+                                .items(List.of())
+                                .build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].items[0].quantity").value(2))
+                .andExpect(jsonPath("$[1].productName").value("Batch Mouse"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void createProductBatch_WithInvalidProduct_ReturnsBadRequest() throws Exception {
+        ProductBatchRequest request = ProductBatchRequest.builder()
+                .products(List.of(ProductRequest.builder().productName("").items(List.of()).build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getProducts_WithoutAuthentication_ReturnsUnauthorized() throws Exception {
         mockMvc.perform(get("/api/v1/products")
@@ -113,6 +164,30 @@ class ProductControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void updateProduct_WithDuplicateItemIds_ReturnsBadRequest() throws Exception {
+        ProductResponse createdProduct = productService.createProduct(ProductRequest.builder()
+                .productName("Duplicate Items")
+                .items(List.of(ProductRequest.ItemRequest.builder().quantity(1).build()))
+                .build());
+        Integer itemId = createdProduct.getItems().get(0).getId();
+
+        ProductRequest updateRequest = ProductRequest.builder()
+                .productName("Duplicate Items")
+                .items(List.of(
+                        ProductRequest.ItemRequest.builder().id(itemId).quantity(2).build(),
+                        ProductRequest.ItemRequest.builder().id(itemId).quantity(3).build()))
+                .build();
+
+        mockMvc.perform(put("/api/v1/products/{id}", createdProduct.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.itemIdsUnique").value("Item ids must be unique"));
+    }
+
     @Test
     void deleteProduct_WithoutAuthentication_ReturnsUnauthorized() throws Exception {
         mockMvc.perform(delete("/api/v1/products/{id}", 1)
@@ -143,6 +218,67 @@ class ProductControllerIntegrationTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getAllProducts_StaysWithinStatementBudget(SqlStatements sql) throws Throwable {
+        for (int i = 0; i < 3; i++) {
+            productService.createProduct(ProductRequest.builder()
+                    .productName("Budget " + i)
+                    .items(List.of(ProductRequest.ItemRequest.builder().quantity(1).build(),
+                            ProductRequest.ItemRequest.builder().quantity(2).build()))
+                    .build());
+        }
+        // Flush the inserts now so they are not counted against the request
+        entityManager.flush();
+        entityManager.clear();
+
+        // id page + count + products with items, reported back in the response header
+        sql.assertAtMost(3, () -> mockMvc.perform(get("/api/v1/products")
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(header().string(SqlStatementCountFilter.COUNT_HEADER, "3")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deleteProducts_RemovesProductsWithItems() throws Exception {
+        ProductRequest createRequest = ProductRequest.builder()
+                .productName("Bulk Delete")
+                .items(List.of(ProductRequest.ItemRequest.builder().quantity(1).build(),
+                        ProductRequest.ItemRequest.builder().quantity(2).build()))
+                .build();
+        ProductResponse first = productService.createProduct(createRequest);
+        ProductResponse second = productService.createProduct(createRequest);
+
+        mockMvc.perform(delete("/api/v1/products")
+                        .param("ids", first.getId() + "," + second.getId() + ",999999")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        mockMvc.perform(get("/api/v1/products/{id}", first.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deleteProducts_WithoutIds_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(delete("/api/v1/products")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void deleteProducts_WithUserRole_ReturnsForbidden() throws Exception {
+        mockMvc.perform(delete("/api/v1/products")
+                        .param("ids", "1")
+                        .with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
     void getProductItems_ReturnsItemsList() throws Exception {
@@ -162,4 +298,201 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].quantity").value(10));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getProductItems_WithPageOrSizeOutOfRange_ReturnsBadRequest() throws Exception {
+        ProductResponse createdProduct = productService.createProduct(ProductRequest.builder()
+                .productName("Paged Items")
+                .items(List.of())
+                .build());
+
+        mockMvc.perform(get("/api/v1/products/{id}/items", createdProduct.getId())
+                        .param("page", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/products/{id}/items", createdProduct.getId())
+                        .param("size", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/products/{id}/items", createdProduct.getId())
+                        .param("size", "1000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void scrollProducts_FollowsNextCursor() throws Exception {
+        for (String name : List.of("Scroll A", "Scroll B", "Scroll C")) {
+            productService.createProduct(ProductRequest.builder()
+                    .productName(name)
+                    .items(List.of())
+                    .build());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("size", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        String next = objectMapper.readTree(firstPage).get("next").asText();
+
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("size", "2")
+                        .param("cursor", next)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(Matchers.greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void scrollProducts_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("cursor", "not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getChanges_FollowsProductWrites() throws Exception {
+        ProductRequest request = ProductRequest.builder()
+                .productName("Followed")
+                .items(List.of())
+                .build();
+        ProductResponse created = productService.createProduct(request);
+        // Follow from the creation; earlier, rolled-back tests leave gaps in the sequence before it
+        long since = entityManager.createQuery("select max(c.seq) from ProductChange c", Long.class)
+                .getSingleResult();
+        productService.updateProduct(created.getId(), request);
+        productService.deleteProduct(created.getId());
+
+        mockMvc.perform(get("/api/v1/products/changes")
+                        .param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].productId").value(created.getId()))
+                .andExpect(jsonPath("$.changes[0].operation").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[1].operation").value("DELETED"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getChanges_WithLimitAboveMaximum_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/changes")
+                        .param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void scrollProducts_WithSizeOutOfRange_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("size", "-5"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("size", "1000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getProductById_WithMatchingETag_ReturnsNotModified() throws Exception {
+        ProductResponse createdProduct = productService.createProduct(ProductRequest.builder()
+                .productName("Conditional Product")
+                .items(List.of())
+                .build());
+
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", createdProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/{id}", createdProduct.getId())
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getProducts_WithMatchingETag_ReturnsNotModified() throws Exception {
+        productService.createProduct(ProductRequest.builder()
+                .productName("Conditional Page Product")
+                .items(List.of())
+                .build());
+
+        String eTag = mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getProductItems_WithPagination_ReturnsRequestedPage() throws Exception {
+        List<ProductRequest.ItemRequest> items = List.of(
+                ProductRequest.ItemRequest.builder().quantity(1).build(),
+                ProductRequest.ItemRequest.builder().quantity(2).build(),
+                ProductRequest.ItemRequest.builder().quantity(3).build());
+        ProductResponse createdProduct = productService.createProduct(ProductRequest.builder()
+                .productName("Product with many Items")
+                .items(items)
+                .build());
+
+        mockMvc.perform(get("/api/v1/products/{id}/items", createdProduct.getId())
+                        .param("page", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-Next", "true"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].quantity").value(1));
+
+        mockMvc.perform(get("/api/v1/products/{id}/items", createdProduct.getId())
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Has-Next", "false"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].quantity").value(3));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getProductItems_WhenProductMissing_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}/items", Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void exportProducts_AsCsv_StreamsHeaderRow() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", Matchers.startsWith("text/csv")))
+                .andExpect(content().string(Matchers.startsWith("product_id,product_name")));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void exportProducts_WithUnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/export")
+                        .param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+}
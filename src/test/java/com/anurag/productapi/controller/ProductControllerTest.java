@@ -1,10 +1,13 @@
 package com.anurag.productapi.controller;
 
+import com.anurag.productapi.cache.TokenVersionCache;
 import com.anurag.productapi.dto.request.ProductRequest;
 import com.anurag.productapi.dto.response.ProductResponse;
 import com.anurag.productapi.exception.ResourceNotFoundException;
+import com.anurag.productapi.observability.RequestMetrics;
 import com.anurag.productapi.security.JwtUtils;
 import com.anurag.productapi.security.UserDetailsServiceImpl;
+import com.anurag.productapi.service.ProductChangeService;
 import com.anurag.productapi.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -37,12 +40,21 @@ class ProductControllerTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductChangeService productChangeService;
+
     @MockitoBean
     private JwtUtils jwtUtils;
 
     @MockitoBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private TokenVersionCache tokenVersionCache;
+
+    @MockitoBean
+    private RequestMetrics requestMetrics;
+
     @Test
     void createProduct_ReturnsCreated() throws Exception {
         ProductRequest request = ProductRequest.builder()
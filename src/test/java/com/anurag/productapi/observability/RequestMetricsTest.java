@@ -0,0 +1,121 @@
+package com.anurag.productapi.observability;
+
+import com.anurag.productapi.enums.AuthFailureReason;
+import com.anurag.productapi.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RequestMetricsTest {
+
+    private final RequestMetrics requestMetrics = new RequestMetrics(1000, 2);
+
+    static class SampleController {
+        public void getAll() {
+        }
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getMethod("getAll"));
+    }
+
+    @Test
+    void scrape_ReportsQuantilesPerHandlerAndStatus() throws Exception {
+        HandlerMethod handler = handler();
+        for (int i = 1; i <= 1000; i++) {
+            requestMetrics.recordRequest(handler, 200, TimeUnit.MILLISECONDS.toNanos(i % 100 == 0 ? 500 : 1));
+        }
+        requestMetrics.recordRequest(handler, 404, TimeUnit.MILLISECONDS.toNanos(2));
+
+        String scrape = requestMetrics.scrape();
+
+        String ok = "{handler=\"SampleController.getAll\",status=\"200\"";
+        assertTrue(scrape.contains("http_server_requests_seconds" + ok + ",quantile=\"0.5\"} 0.001"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds" + ok + ",quantile=\"0.999\"} 0.5"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_count" + ok + "} 1000\n"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_sum" + ok + "} 5.99\n"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_max" + ok + "} 0.5"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_count{handler=\"SampleController.getAll\",status=\"404\"} 1\n"), scrape);
+    }
+
+    @Test
+    void scrape_StartsANewIntervalButKeepsCounting() throws Exception {
+        HandlerMethod handler = handler();
+        requestMetrics.recordRequest(handler, 200, TimeUnit.MILLISECONDS.toNanos(5));
+        requestMetrics.scrape();
+
+        String scrape = requestMetrics.scrape();
+
+        String ok = "{handler=\"SampleController.getAll\",status=\"200\"";
+        assertTrue(scrape.contains("http_server_requests_seconds" + ok + ",quantile=\"0.99\"} NaN"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_max" + ok + "} NaN"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_count" + ok + "} 1\n"), scrape);
+    }
+
+    @Test
+    void scrape_CountAndSumAdvanceTogether() throws Exception {
+        HandlerMethod handler = handler();
+        String ok = "{handler=\"SampleController.getAll\",status=\"200\"";
+        requestMetrics.recordRequest(handler, 200, TimeUnit.MILLISECONDS.toNanos(250));
+        String first = requestMetrics.scrape();
+        assertTrue(first.contains("http_server_requests_seconds_count" + ok + "} 1\n"), first);
+        assertTrue(first.contains("http_server_requests_seconds_sum" + ok + "} 0.25\n"), first);
+
+        // Recorded between two scrapes: both counters include it on the next one
+        requestMetrics.recordRequest(handler, 200, TimeUnit.MILLISECONDS.toNanos(250));
+        String second = requestMetrics.scrape();
+
+        assertTrue(second.contains("http_server_requests_seconds_count" + ok + "} 2\n"), second);
+        assertTrue(second.contains("http_server_requests_seconds_sum" + ok + "} 0.5\n"), second);
+    }
+
+    @Test
+    void recordRequest_ClampsLatenciesAboveTheTrackableMaximum() {
+        requestMetrics.recordRequest(null, 401, TimeUnit.MINUTES.toNanos(5));
+
+        String scrape = requestMetrics.scrape();
+
+        // Recorded as the 1 s maximum, within the histogram's precision
+        assertTrue(scrape.contains("http_server_requests_seconds_max{handler=\"unmatched\",status=\"401\"} 1.0"), scrape);
+        assertTrue(scrape.contains("http_server_requests_seconds_sum{handler=\"unmatched\",status=\"401\"} 300.0\n"), scrape);
+    }
+
+    @Test
+    void scrape_ReportsAuthFailuresAndExceptions() {
+        requestMetrics.recordAuthFailure(AuthFailureReason.REVOKED_TOKEN);
+        requestMetrics.recordAuthFailure(AuthFailureReason.REVOKED_TOKEN);
+        requestMetrics.recordException(new ResourceNotFoundException("missing"), 404);
+
+        String scrape = requestMetrics.scrape();
+
+        assertTrue(scrape.contains("auth_failures_total{reason=\"invalid_token\"} 0\n"), scrape);
+        assertTrue(scrape.contains("auth_failures_total{reason=\"revoked_token\"} 2\n"), scrape);
+        assertTrue(scrape.contains("http_server_exceptions_total{exception=\"ResourceNotFoundException\",status=\"404\"} 1\n"), scrape);
+    }
+
+    @Test
+    void recordRequest_AllocatesNothingOnceTheSeriesExists() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        HandlerMethod handler = handler();
+        requestMetrics.recordRequest(handler, 200, 1_000);
+        requestMetrics.recordAuthFailure(AuthFailureReason.INVALID_TOKEN);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            requestMetrics.recordRequest(handler, 200, i * 1_000L);
+            requestMetrics.recordAuthFailure(AuthFailureReason.INVALID_TOKEN);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Far less than a single byte per request; what remains is the measurement itself
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+    }
+}
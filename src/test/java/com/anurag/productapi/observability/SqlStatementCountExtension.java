@@ -0,0 +1,49 @@
+package com.anurag.productapi.observability;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Injects {@link SqlStatements} into test methods, to assert how many JDBC statements a piece of code issues.
+ * <pre>
+ * &#64;ExtendWith(SqlStatementCountExtension.class)
+ * class MyTest {
+ *     &#64;Test
+ *     void list(SqlStatements sql) throws Throwable {
+ *         sql.assertAtMost(3, () -&gt; mockMvc.perform(get("/api/v1/products")));
+ *     }
+ * }
+ * </pre>
+ * Only statements executed on the test thread are counted, which covers MockMvc requests.
+ */
+public class SqlStatementCountExtension implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SqlStatements.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return new SqlStatements();
+    }
+
+    public static final class SqlStatements {
+
+        /**
+         * Runs {@code action} and fails if it executed more than {@code maxStatements} statements.
+         */
+        public <T> T assertAtMost(int maxStatements, ThrowingSupplier<T> action) throws Throwable {
+            SqlStatementStats start = SqlStatementCounter.current();
+            T result = action.get();
+            long executed = SqlStatementCounter.current().since(start).statements();
+            assertTrue(executed <= maxStatements,
+                    () -> "Expected at most " + maxStatements + " SQL statements but " + executed + " were executed");
+            return result;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.anurag.productapi.ratelimit;
+
+import com.anurag.productapi.enums.Roles;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    // Burst of one second's worth: 2 anonymous reads, 1 anonymous write, 3 user reads, 10 admin reads
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(1000, Duration.ofMinutes(1), () -> 0L), true,
+            "ANONYMOUS:2,USER:3,ADMIN:10", "ANONYMOUS:1,USER:2,ADMIN:5", 1);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overTheLimit_Returns429WithRetryAfter() throws Exception {
+        authenticate("alice", Roles.USER);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("GET", "/api/v1/products", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse limited = send("GET", "/api/v1/products", "10.0.0.1");
+
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("Too Many Requests"));
+    }
+
+    @Test
+    void readsAndWrites_HaveSeparateBudgets() throws Exception {
+        authenticate("alice", Roles.USER);
+        for (int i = 0; i < 3; i++) {
+            send("GET", "/api/v1/products", "10.0.0.1");
+        }
+
+        assertEquals(200, send("POST", "/api/v1/products", "10.0.0.1").getStatus());
+        assertEquals(200, send("DELETE", "/api/v1/products/1", "10.0.0.1").getStatus());
+        assertEquals(429, send("PUT", "/api/v1/products/1", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void limitsDependOnTheRole() throws Exception {
+        authenticate("root", Roles.ADMIN);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("GET", "/api/v1/products", "10.0.0.1").getStatus());
+        }
+        assertEquals(429, send("GET", "/api/v1/products", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void authEndpoints_AreLimitedPerClientIp() throws Exception {
+        assertEquals(200, send("POST", "/api/v1/auth/login", "10.0.0.1").getStatus());
+        assertEquals(429, send("POST", "/api/v1/auth/login", "10.0.0.1").getStatus());
+
+        // Another address has its own bucket, and a bearer token does not lift the anonymous limit on /auth
+        assertEquals(200, send("POST", "/api/v1/auth/login", "10.0.0.2").getStatus());
+        authenticate("alice", Roles.USER);
+        assertEquals(429, send("POST", "/api/v1/auth/refresh-token", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void invalidTokens_UseUpASeparateBudgetPerClientIp() throws Exception {
+        assertFalse(filter.rejectInvalidToken(request("GET", "/api/v1/products", "10.0.0.1"),
+                new MockHttpServletResponse()));
+        assertFalse(filter.rejectInvalidToken(request("GET", "/api/v1/products", "10.0.0.1"),
+                new MockHttpServletResponse()));
+
+        MockHttpServletResponse limited = new MockHttpServletResponse();
+        assertTrue(filter.rejectInvalidToken(request("GET", "/api/v1/products", "10.0.0.1"), limited));
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+
+        // Other addresses, and requests of the same address without a bad token, are not affected
+        assertFalse(filter.rejectInvalidToken(request("GET", "/api/v1/products", "10.0.0.2"),
+                new MockHttpServletResponse()));
+        assertEquals(200, send("GET", "/api/v1/products", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void disabled_PassesEverythingThrough() throws Exception {
+        RateLimitFilter disabled = new RateLimitFilter(
+                new RateLimiter(1000, Duration.ofMinutes(1), () -> 0L), false,
+                "ANONYMOUS:1,USER:1,ADMIN:1", "ANONYMOUS:1,USER:1,ADMIN:1", 1);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            disabled.doFilter(request("POST", "/api/v1/auth/login", "10.0.0.1"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void parseLimits_RequiresEveryRoleAndAnonymous() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimitFilter.parseLimits("ANONYMOUS:1,USER:1", 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitFilter.parseLimits("USER:1,ADMIN:1", 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitFilter.parseLimits("ANONYMOUS=1,USER:1,ADMIN:1", 1));
+        assertEquals(3, RateLimitFilter.parseLimits("ANONYMOUS:1, USER:2, ADMIN:3", 1).size());
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request(method, uri, remoteAddr), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static void authenticate(String username, Roles role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role.getAuthority()))));
+    }
+}
@@ -0,0 +1,101 @@
+package com.anurag.productapi.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    // 10 per second, 3 at once
+    private static final RateLimit LIMIT = RateLimit.of(10, 3);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final RateLimiter rateLimiter = new RateLimiter(1000, Duration.ofMinutes(1), clock::get);
+
+    @Test
+    void tryAcquire_AdmitsTheBurstThenAsksToWaitOneInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("client", LIMIT));
+        }
+
+        assertEquals(INTERVAL, rateLimiter.tryAcquire("client", LIMIT));
+    }
+
+    @Test
+    void tryAcquire_RefillsAtTheSustainedRate() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("client", LIMIT);
+        }
+
+        clock.addAndGet(INTERVAL);
+        assertEquals(0, rateLimiter.tryAcquire("client", LIMIT));
+        assertTrue(rateLimiter.tryAcquire("client", LIMIT) > 0);
+
+        // Idle long enough, the whole burst is available again but not more
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("client", LIMIT));
+        }
+        assertTrue(rateLimiter.tryAcquire("client", LIMIT) > 0);
+    }
+
+    @Test
+    void tryAcquire_KeepsClientsApart() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("first", LIMIT);
+        }
+
+        assertTrue(rateLimiter.tryAcquire("first", LIMIT) > 0);
+        assertEquals(0, rateLimiter.tryAcquire("second", LIMIT));
+    }
+
+    @Test
+    void tryAcquire_Concurrently_AdmitsExactlyTheBurst() throws Exception {
+        RateLimit limit = RateLimit.of(1, 100);
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (rateLimiter.tryAcquire("client", limit) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The clock does not move, so no request beyond the burst may slip through a lost update
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    void idleBuckets_AreEvicted() {
+        rateLimiter.tryAcquire("first", LIMIT);
+        rateLimiter.tryAcquire("second", LIMIT);
+        assertEquals(2, rateLimiter.trackedClients());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(0, rateLimiter.trackedClients());
+    }
+}
@@ -0,0 +1,150 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.NotificationType;
+import com.anurag.productapi.enums.OutboxStatus;
+import com.anurag.productapi.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxDispatcherTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+
+    // batchSize 5, 2 workers, at most 2 in flight, 3 attempts, 1s backoff doubling up to 3s
+    private final NotificationOutboxDispatcher dispatcher =
+            new NotificationOutboxDispatcher(notificationService, 5, 2, 2, 60_000, 3, 1_000, 3_000);
+
+    @BeforeEach
+    void setUp() {
+        when(notificationService.renewClaim(any(), any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchDue_DeliversAndRemovesEachNotification() {
+        when(notificationService.claimDue(any(), anyInt(), any())).thenReturn(notifications(1, 0));
+
+        assertEquals(1, dispatcher.dispatchDue(Instant.now()));
+
+        verify(notificationService, timeout(5_000)).markDelivered(1L);
+        verify(notificationService).deliver(argThat(n -> n.getId() == 1L));
+        verify(notificationService, never()).markFailed(any(), any(), any());
+    }
+
+    @Test
+    void dispatchDue_RenewsTheLeaseWhenAWorkerPicksTheNotificationUp() {
+        when(notificationService.claimDue(any(), anyInt(), any())).thenReturn(notifications(1, 0));
+
+        dispatcher.dispatchDue(Instant.now());
+
+        verify(notificationService, timeout(5_000)).markDelivered(1L);
+        var inOrder = inOrder(notificationService);
+        inOrder.verify(notificationService).renewClaim(argThat(n -> n.getId() == 1L), any(), eq(Duration.ofMinutes(1)));
+        inOrder.verify(notificationService).deliver(any());
+    }
+
+    @Test
+    void dispatchDue_ClaimLostWhileQueued_IsNotSent() {
+        when(notificationService.claimDue(any(), anyInt(), any())).thenReturn(notifications(1, 0));
+        when(notificationService.renewClaim(any(), any(), any())).thenReturn(false);
+
+        dispatcher.dispatchDue(Instant.now());
+
+        verify(notificationService, timeout(5_000)).renewClaim(any(), any(), any());
+        verify(notificationService, after(200).never()).deliver(any());
+        verify(notificationService, never()).markDelivered(any());
+        verify(notificationService, never()).markFailed(any(), any(), any());
+        assertEquals(1, dispatcher.stats().getExpiredLeaseCount());
+        assertEquals(0, dispatcher.stats().getInFlight());
+    }
+
+    @Test
+    void dispatchDue_FailedDelivery_IsRetriedWithBackoff() {
+        when(notificationService.claimDue(any(), anyInt(), any())).thenReturn(notifications(1, 0));
+        doThrow(new IllegalStateException("mail server down")).when(notificationService).deliver(any());
+        Instant before = Instant.now();
+
+        dispatcher.dispatchDue(before);
+
+        verify(notificationService, timeout(5_000)).markFailed(eq(1L), contains("mail server down"),
+                argThat(next -> !next.isBefore(before.plusSeconds(1))));
+        verify(notificationService, never()).markDelivered(any());
+    }
+
+    @Test
+    void dispatchDue_LastAttemptFails_GivesUp() {
+        when(notificationService.claimDue(any(), anyInt(), any())).thenReturn(notifications(1, 2));
+        doThrow(new IllegalStateException("mail server down")).when(notificationService).deliver(any());
+
+        dispatcher.dispatchDue(Instant.now());
+
+        verify(notificationService, timeout(5_000)).markFailed(eq(1L), contains("mail server down"), isNull());
+    }
+
+    @Test
+    void dispatchDue_ClaimsNoMoreThanThePoolHasRoomFor() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(notificationService.claimDue(any(), anyInt(), any()))
+                .thenAnswer(invocation -> notifications(invocation.getArgument(1, Integer.class), 0));
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(notificationService).deliver(any());
+
+        assertEquals(2, dispatcher.dispatchDue(Instant.now()));
+        // Both slots are busy: the next poll leaves everything in the table
+        assertEquals(0, dispatcher.dispatchDue(Instant.now()));
+        verify(notificationService, times(1)).claimDue(any(), eq(2), eq(Duration.ofMinutes(1)));
+
+        release.countDown();
+        verify(notificationService, timeout(5_000).times(2)).markDelivered(any());
+    }
+
+    @Test
+    void backoff_DoublesUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(2), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(3), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(3), dispatcher.backoff(40));
+    }
+
+    @Test
+    void stats_ReportTableDepthAndLag() {
+        when(notificationService.countByStatus(OutboxStatus.PENDING)).thenReturn(7L);
+        when(notificationService.countByStatus(OutboxStatus.FAILED)).thenReturn(1L);
+        when(notificationService.oldestPendingCreatedAt()).thenReturn(Instant.now().minusSeconds(30));
+
+        var stats = dispatcher.stats();
+
+        assertEquals(7, stats.getPendingCount());
+        assertEquals(1, stats.getFailedCount());
+        assertTrue(stats.getLagMillis() >= 30_000);
+        assertEquals(2, stats.getMaxInFlight());
+    }
+
+    private static List<NotificationOutbox> notifications(int count, int attempts) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> NotificationOutbox.builder()
+                        .id(id)
+                        .type(NotificationType.WELCOME_EMAIL)
+                        .recipient("user" + id)
+                        .status(OutboxStatus.PENDING)
+                        .attempts(attempts)
+                        .build())
+                .toList();
+    }
+}
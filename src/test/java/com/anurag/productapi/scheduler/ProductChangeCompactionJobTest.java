@@ -0,0 +1,41 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.service.ProductChangeService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductChangeCompactionJobTest {
+
+    private final ProductChangeService productChangeService = mock(ProductChangeService.class);
+
+    @Test
+    void compact_DeletesChangesOlderThanTheRetention() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(Duration.ofDays(7));
+        when(productChangeService.compact(cutoff, 100)).thenReturn(100, 12);
+
+        int compacted = new ProductChangeCompactionJob(productChangeService, Duration.ofDays(7).toMillis(), 100, 10)
+                .compact(now);
+
+        assertEquals(112, compacted);
+        verify(productChangeService, times(2)).compact(eq(cutoff), eq(100));
+    }
+
+    @Test
+    void compact_StopsAtMaxBatchesPerRun() {
+        Instant now = Instant.now();
+        when(productChangeService.compact(any(Instant.class), eq(100))).thenReturn(100);
+
+        int compacted = new ProductChangeCompactionJob(productChangeService, 1000, 100, 3).compact(now);
+
+        assertEquals(300, compacted);
+        verify(productChangeService, times(3)).compact(any(Instant.class), eq(100));
+    }
+}
@@ -0,0 +1,36 @@
+package com.anurag.productapi.scheduler;
+
+import com.anurag.productapi.service.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenPurgeJobTest {
+
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+
+    @Test
+    void purge_StopsAfterAPartialBatch() {
+        when(refreshTokenService.purgeExpired(any(Instant.class), eq(100))).thenReturn(100, 100, 37);
+
+        int purged = new RefreshTokenPurgeJob(refreshTokenService, 100, 10).purge(Instant.now());
+
+        assertEquals(237, purged);
+        verify(refreshTokenService, times(3)).purgeExpired(any(Instant.class), eq(100));
+    }
+
+    @Test
+    void purge_StopsAtMaxBatchesPerRun() {
+        when(refreshTokenService.purgeExpired(any(Instant.class), eq(100))).thenReturn(100);
+
+        int purged = new RefreshTokenPurgeJob(refreshTokenService, 100, 4).purge(Instant.now());
+
+        assertEquals(400, purged);
+        verify(refreshTokenService, times(4)).purgeExpired(any(Instant.class), eq(100));
+    }
+}
@@ -0,0 +1,100 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.cache.TokenVersionCache;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.observability.RequestMetrics;
+import com.anurag.productapi.ratelimit.RateLimitFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthTokenFilterTest {
+
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final TokenVersionCache tokenVersionCache = mock(TokenVersionCache.class);
+
+    // One invalid token per second, two at once, per client address
+    private final AuthTokenFilter filter = new AuthTokenFilter(jwtUtils, tokenVersionCache,
+            new RequestMetrics(60_000, 2),
+            new RateLimitFilter(true, "ANONYMOUS:1,USER:10,ADMIN:10", "ANONYMOUS:1,USER:10,ADMIN:10", 2,
+                    1000, 60_000));
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtils.verify("forged")).thenThrow(new RuntimeException("Invalid JWT token"));
+        when(jwtUtils.verify("valid")).thenReturn(
+                new VerifiedToken("alice", Roles.USER, 1, Instant.now().plusSeconds(60)));
+        when(tokenVersionCache.isCurrent(anyString(), anyLong())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void invalidTokenFlood_IsToldToBackOff() throws Exception {
+        assertEquals(401, send("forged", "10.0.0.1").getStatus());
+        assertEquals(401, send("forged", "10.0.0.1").getStatus());
+        MockHttpServletResponse limited = send("forged", "10.0.0.1");
+        assertEquals(429, limited.getStatus());
+        assertNotNull(limited.getHeader("Retry-After"));
+
+        // Another address has its own budget
+        assertEquals(401, send("forged", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void validToken_FromAnAddressOutOfInvalidTokenBudget_GetsThrough() throws Exception {
+        send("forged", "10.0.0.1");
+        send("forged", "10.0.0.1");
+        assertEquals(429, send("forged", "10.0.0.1").getStatus());
+
+        // Another user behind the same proxy
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = send("valid", "10.0.0.1", chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void noToken_IsNotChargedOrRejected() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.setRemoteAddr("10.0.0.1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletResponse send(String token, String remoteAddr) throws Exception {
+        return send(token, remoteAddr, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse send(String token, String remoteAddr, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,69 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.enums.Roles;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurablePasswordEncoderTest {
+
+    @Test
+    void encode_UsesRoleSpecificBcryptCost() {
+        ConfigurablePasswordEncoder encoder = new ConfigurablePasswordEncoder("bcrypt", 4, Map.of(Roles.ADMIN, 5));
+
+        String userHash = encoder.encode("secret", Roles.USER);
+        String adminHash = encoder.encode("secret", Roles.ADMIN);
+
+        assertTrue(userHash.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(adminHash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", userHash));
+        assertTrue(encoder.matches("secret", adminHash));
+    }
+
+    @Test
+    void matches_LegacyUnprefixedBcryptHash() {
+        ConfigurablePasswordEncoder encoder = new ConfigurablePasswordEncoder("bcrypt", 4, Map.of());
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacyHash));
+        assertFalse(encoder.matches("wrong", legacyHash));
+        // Same scheme and cost: no reason to rewrite it
+        assertFalse(encoder.upgradeEncoding(legacyHash, Roles.USER));
+    }
+
+    @Test
+    void upgradeEncoding_WhenCostOrSchemeChanged() {
+        ConfigurablePasswordEncoder bcrypt4 = new ConfigurablePasswordEncoder("bcrypt", 4, Map.of());
+        ConfigurablePasswordEncoder bcrypt5ForAdmins = new ConfigurablePasswordEncoder("bcrypt", 4, Map.of(Roles.ADMIN, 5));
+        ConfigurablePasswordEncoder pbkdf2 = new ConfigurablePasswordEncoder("pbkdf2", 4, Map.of());
+        String hash = bcrypt4.encode("secret", Roles.ADMIN);
+
+        assertFalse(bcrypt4.upgradeEncoding(hash, Roles.ADMIN));
+        assertTrue(bcrypt5ForAdmins.upgradeEncoding(hash, Roles.ADMIN));
+        assertFalse(bcrypt5ForAdmins.upgradeEncoding(hash, Roles.USER));
+        assertTrue(pbkdf2.upgradeEncoding(hash, Roles.ADMIN));
+
+        // Hashes from the old scheme keep working after the switch
+        assertTrue(pbkdf2.matches("secret", hash));
+        String pbkdf2Hash = pbkdf2.encode("secret", Roles.ADMIN);
+        assertTrue(pbkdf2Hash.startsWith("{pbkdf2}"));
+        assertTrue(bcrypt4.matches("secret", pbkdf2Hash));
+        assertFalse(pbkdf2.upgradeEncoding(pbkdf2Hash, Roles.ADMIN));
+    }
+
+    @Test
+    void parseRoleStrengths_ReadsRoleCostPairs() {
+        assertEquals(Map.of(Roles.ADMIN, 12, Roles.USER, 8),
+                ConfigurablePasswordEncoder.parseRoleStrengths("ADMIN:12, USER:8"));
+        assertTrue(ConfigurablePasswordEncoder.parseRoleStrengths("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ConfigurablePasswordEncoder.parseRoleStrengths("ADMIN"));
+    }
+
+    @Test
+    void constructor_RejectsUnknownScheme() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfigurablePasswordEncoder("md5", 10, Map.of()));
+    }
+}
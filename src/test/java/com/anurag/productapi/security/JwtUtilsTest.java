@@ -0,0 +1,126 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.dto.response.CacheStatsResponse;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "TestSecretKeyThatIsLongEnoughForHmacSha256Signing";
+    private static final User ALICE = User.builder().username("alice").role(Roles.ADMIN).tokenVersion(3L).build();
+
+    private static JwtUtils jwtUtils(int expirationMs, long verifiedCacheMaxSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlMs", 60_000L);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @Test
+    void verify_ReturnsSubjectAndExpiry() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 0);
+
+        VerifiedToken token = jwtUtils.verify(jwtUtils.generateToken(ALICE));
+
+        assertEquals("alice", token.username());
+        assertEquals(Roles.ADMIN, token.role());
+        assertEquals(3, token.tokenVersion());
+        assertTrue(token.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void verify_TokenWithoutRoleAndVersion_Throws() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 0);
+        String legacyToken = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(RuntimeException.class, () -> jwtUtils.verify(legacyToken));
+    }
+
+    @Test
+    void verify_TamperedToken_Throws() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 100);
+        String token = jwtUtils.generateToken(ALICE);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(RuntimeException.class, () -> jwtUtils.verify(tampered));
+    }
+
+    @Test
+    void verify_ExpiredToken_ThrowsAndIsNotCached() {
+        JwtUtils jwtUtils = jwtUtils(-1_000, 100);
+        String token = jwtUtils.generateToken(ALICE);
+
+        assertThrows(RuntimeException.class, () -> jwtUtils.verify(token));
+        assertThrows(RuntimeException.class, () -> jwtUtils.verify(token));
+    }
+
+    @Test
+    void verifiedTokenStats_CountHitsAndMisses() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 100);
+        String token = jwtUtils.generateToken(ALICE);
+
+        jwtUtils.verify(token);
+        jwtUtils.verify(token);
+
+        CacheStatsResponse stats = jwtUtils.verifiedTokenStats().orElseThrow();
+        assertEquals("verifiedTokens", stats.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertTrue(jwtUtils(60_000, 0).verifiedTokenStats().isEmpty());
+    }
+
+    @Test
+    void verifiedTokenCache_VerifiesEachTokenOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(1));
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken verified = new VerifiedToken("alice", Roles.USER, 0, Instant.now().plusSeconds(60));
+
+        cache.get("token", token -> {
+            verifications.incrementAndGet();
+            return verified;
+        });
+        VerifiedToken second = cache.get("token", token -> {
+            verifications.incrementAndGet();
+            return verified;
+        });
+
+        assertSame(verified, second);
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void verifiedTokenCache_DropsEntriesAtTokenExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(1));
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken alreadyExpired = new VerifiedToken("alice", Roles.USER, 0, Instant.now().minusSeconds(1));
+
+        cache.get("token", token -> {
+            verifications.incrementAndGet();
+            return alreadyExpired;
+        });
+        cache.get("token", token -> {
+            verifications.incrementAndGet();
+            return alreadyExpired;
+        });
+
+        assertEquals(2, verifications.get());
+    }
+}
@@ -0,0 +1,93 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.dto.response.BulkheadStatsResponse;
+import com.anurag.productapi.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingBulkheadTest {
+
+    private PasswordHashingBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new PasswordHashingBulkhead(1, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void execute_WhenPoolAndQueueAreFull_RejectsImmediately() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> bulkhead.execute(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> bulkhead.execute(() -> "second"));
+        waitForQueueDepth(1);
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> bulkhead.execute(() -> "third"));
+        assertEquals(2, ex.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("first", busy.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+
+        BulkheadStatsResponse stats = bulkhead.stats();
+        assertEquals(2, stats.getCompletedCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    void execute_PropagatesTaskExceptions() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> bulkhead.execute(() -> {
+                    throw new IllegalArgumentException("bad hash");
+                }));
+        assertEquals("bad hash", ex.getMessage());
+    }
+
+    @Test
+    void bulkheadPasswordEncoder_EncodesAndMatchesOnThePool() {
+        PasswordEncoder encoder = new BulkheadPasswordEncoder(new ConfigurablePasswordEncoder("bcrypt", 4, Map.of()), bulkhead);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, bulkhead.stats().getCompletedCount());
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.stats().getQueueDepth() < depth) {
+            assertTrue(System.nanoTime() < deadline, "task was never queued");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
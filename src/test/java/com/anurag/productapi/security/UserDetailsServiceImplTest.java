@@ -0,0 +1,97 @@
+package com.anurag.productapi.security;
+
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+
+    private UserRepository userRepository;
+    private UserDetailsServiceImpl userDetailsService;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, 100, 60_000);
+        alice = User.builder().id(1L).username("alice").password("hash").role(Roles.USER).build();
+    }
+
+    @Test
+    void loadUserByUsername_SecondCallIsServedFromCache() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        UserDetails first = userDetailsService.loadUserByUsername("alice");
+        UserDetails second = userDetailsService.loadUserByUsername("alice");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("alice");
+        assertEquals(0.5, userDetailsService.stats().getHitRate());
+    }
+
+    @Test
+    void loadUserByUsername_AfterEvict_ReloadsUser() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        userDetailsService.loadUserByUsername("alice");
+        userDetailsService.evict("alice");
+        userDetailsService.loadUserByUsername("alice");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUser_ThrowsAndIsNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void loadUserByUsername_ConcurrentMissesIssueOneQuery() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(alice);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<UserDetails>> loads = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> userDetailsService.loadUserByUsername("alice"), executor))
+                    .toList();
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            releaseQuery.countDown();
+
+            for (CompletableFuture<UserDetails> load : loads) {
+                assertEquals("alice", load.get(5, TimeUnit.SECONDS).getUsername());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+}
@@ -0,0 +1,70 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.entity.RefreshToken;
+import com.anurag.productapi.service.impl.InMemoryRefreshTokenServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test profile selects the in-memory store
+@SpringBootTest
+@ActiveProfiles("test")
+class InMemoryRefreshTokenServiceTest extends RefreshTokenServiceContractTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void usesTheInMemoryStore() {
+        assertInstanceOf(InMemoryRefreshTokenServiceImpl.class, refreshTokenService);
+    }
+
+    @Test
+    void snapshot_RestoresSessionsAfterRestart() throws Exception {
+        Path snapshotFile = tempDir.resolve("sessions.snapshot");
+        InMemoryRefreshTokenServiceImpl beforeRestart = newStore(snapshotFile);
+        RefreshToken session = beforeRestart.createRefreshToken(user);
+        RefreshToken rotated = beforeRestart.rotate(beforeRestart.createRefreshToken(user));
+
+        beforeRestart.writeSnapshot();
+        InMemoryRefreshTokenServiceImpl afterRestart = newStore(snapshotFile);
+        afterRestart.restoreSnapshot();
+
+        assertEquals(session.getId(), afterRestart.findByToken(session.getToken()).getId());
+        assertEquals(rotated.getId(), afterRestart.findByToken(rotated.getToken()).getId());
+        // Only digests are written, never the tokens
+        String snapshot = Files.readString(snapshotFile);
+        assertFalse(snapshot.contains(session.getToken()));
+        // Ids continue after the restored ones
+        assertTrue(afterRestart.createRefreshToken(user).getId() > rotated.getId());
+    }
+
+    @Test
+    void snapshot_MissingOrCorruptFile_StartsEmpty() throws Exception {
+        Path snapshotFile = tempDir.resolve("sessions.snapshot");
+        newStore(snapshotFile).restoreSnapshot();
+
+        Files.writeString(snapshotFile, "not a session\n");
+        InMemoryRefreshTokenServiceImpl store = newStore(snapshotFile);
+        store.restoreSnapshot();
+
+        assertNotNull(store.createRefreshToken(user).getToken());
+    }
+
+    @Test
+    void constructor_WithoutRoomForASession_Fails() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new InMemoryRefreshTokenServiceImpl(userRepository, refreshExpirationMs, 0, ""));
+    }
+
+    private InMemoryRefreshTokenServiceImpl newStore(Path snapshotFile) {
+        return new InMemoryRefreshTokenServiceImpl(userRepository, refreshExpirationMs, maxSessionsPerUser,
+                snapshotFile.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.entity.NotificationOutbox;
+import com.anurag.productapi.enums.OutboxStatus;
+import com.anurag.productapi.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void enqueueWelcomeEmail_OutsideATransaction_IsRejected() {
+        assertThrows(IllegalTransactionStateException.class, () -> notificationService.enqueueWelcomeEmail("nobody"));
+    }
+
+    @Test
+    void claimDue_LeasesClaimedNotifications() {
+        notificationService.enqueueWelcomeEmail("first");
+        notificationService.enqueueWelcomeEmail("second");
+        Instant now = Instant.now().plusSeconds(1);
+
+        List<NotificationOutbox> claimed = notificationService.claimDue(now, 10, Duration.ofMinutes(1));
+
+        assertEquals(2, claimed.size());
+        // Until the lease runs out, the next poll does not pick them up again
+        assertTrue(notificationService.claimDue(now, 10, Duration.ofMinutes(1)).isEmpty());
+        assertEquals(2, notificationService.claimDue(now.plus(Duration.ofMinutes(2)), 10, Duration.ofMinutes(1)).size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void claimDue_DoesNotReturnRowsClaimedByAConcurrentPoller() {
+        transactionTemplate.executeWithoutResult(status -> notificationService.enqueueWelcomeEmail("contended"));
+        Instant now = Instant.now().plusSeconds(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                assertEquals(1, notificationService.claimDue(now, 10, Duration.ofMinutes(1)).size());
+                // While the first claim is uncommitted, a second poller does not get the same row. PostgreSQL
+                // skips it; H2 has no SKIP LOCKED, so there the poll gives up on the lock instead
+                CompletableFuture<List<NotificationOutbox>> concurrent = CompletableFuture
+                        .supplyAsync(() -> notificationService.claimDue(now, 10, Duration.ofMinutes(1)));
+                try {
+                    assertTrue(concurrent.get(10, TimeUnit.SECONDS).isEmpty());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(PessimisticLockingFailureException.class, e.getCause());
+                } catch (InterruptedException | TimeoutException e) {
+                    fail(e);
+                }
+            });
+        } finally {
+            notificationOutboxRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void renewClaim_RestartsTheLeaseOnlyWhileTheClaimHolds() {
+        notificationService.enqueueWelcomeEmail("slow");
+        Instant now = Instant.now().plusSeconds(1);
+        NotificationOutbox claimed = notificationService.claimDue(now, 10, Duration.ofMinutes(1)).get(0);
+        NotificationOutbox stale = NotificationOutbox.builder()
+                .id(claimed.getId()).nextAttemptAt(claimed.getNextAttemptAt()).build();
+
+        // The worker starts late: the lease now runs from when it picked the notification up
+        Instant startedAt = now.plusSeconds(30);
+        assertTrue(notificationService.renewClaim(claimed, startedAt, Duration.ofMinutes(1)));
+        assertEquals(startedAt.plus(Duration.ofMinutes(1)).truncatedTo(ChronoUnit.MILLIS),
+                claimed.getNextAttemptAt());
+
+        // A copy still holding the first claim may no longer send it
+        assertFalse(notificationService.renewClaim(stale, startedAt, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void markFailed_SchedulesTheNextAttemptOrGivesUp() {
+        notificationService.enqueueWelcomeEmail("retried");
+        NotificationOutbox notification = notificationOutboxRepository.findAll().get(0);
+        Instant nextAttempt = Instant.now().plusSeconds(30);
+
+        notificationService.markFailed(notification.getId(), "timeout", nextAttempt);
+        assertEquals(1, notification.getAttempts());
+        assertEquals(nextAttempt, notification.getNextAttemptAt());
+        assertEquals(OutboxStatus.PENDING, notification.getStatus());
+
+        notificationService.markFailed(notification.getId(), "timeout", null);
+        assertEquals(2, notification.getAttempts());
+        assertEquals(OutboxStatus.FAILED, notification.getStatus());
+        assertEquals(1, notificationService.countByStatus(OutboxStatus.FAILED));
+    }
+
+    @Test
+    void markDelivered_RemovesTheNotification() {
+        notificationService.enqueueWelcomeEmail("delivered");
+        Long id = notificationOutboxRepository.findAll().get(0).getId();
+
+        notificationService.markDelivered(id);
+
+        assertEquals(0, notificationService.countByStatus(OutboxStatus.PENDING));
+    }
+}
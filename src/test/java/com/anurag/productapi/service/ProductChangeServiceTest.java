@@ -0,0 +1,160 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.entity.ProductChange;
+import com.anurag.productapi.enums.ProductChangeOperation;
+import com.anurag.productapi.exception.ChangeFeedExpiredException;
+import com.anurag.productapi.repository.ProductChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ProductChangeServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", "password", new ArrayList<>())
+        );
+        // Changes left by other test classes would count as retained; rolled-back tests also leave gaps in
+        // the sequence, so each test starts from a change of its own
+        productChangeRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void productWrites_AppendChangesInOrder() {
+        long since = append(Instant.now()).getSeq();
+        ProductResponse created = productService.createProduct(product("Feed"));
+        List<ProductResponse> batch = productService.createProducts(List.of(product("Batch 1"), product("Batch 2")));
+        productService.updateProduct(created.getId(), product("Feed renamed"));
+        productService.deleteProducts(List.of(batch.get(0).getId(), 999_999));
+
+        List<ProductChangeResponse> changes = productChangeService.getChangesSince(since, 100).getChanges();
+
+        assertEquals(List.of(ProductChangeOperation.CREATED, ProductChangeOperation.CREATED,
+                        ProductChangeOperation.CREATED, ProductChangeOperation.UPDATED, ProductChangeOperation.DELETED),
+                changes.stream().map(ProductChangeResponse::getOperation).toList());
+        assertEquals(created.getId(), changes.get(0).getProductId());
+        // The unknown id was not deleted, so it has no change
+        assertEquals(batch.get(0).getId(), changes.get(4).getProductId());
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i).getSeq() > changes.get(i - 1).getSeq());
+        }
+    }
+
+    @Test
+    void getChangesSince_ReturnsBoundedBatchesFromTheCursor() {
+        long since = append(Instant.now()).getSeq();
+        for (int i = 0; i < 5; i++) {
+            productService.createProduct(product("Product " + i));
+        }
+
+        ProductChangeFeedResponse first = productChangeService.getChangesSince(since, 3);
+        ProductChangeFeedResponse second = productChangeService.getChangesSince(first.getNext(), 3);
+        ProductChangeFeedResponse caughtUp = productChangeService.getChangesSince(second.getNext(), 3);
+
+        assertEquals(3, first.getChanges().size());
+        assertTrue(first.isHasMore());
+        assertEquals(2, second.getChanges().size());
+        assertFalse(second.isHasMore());
+        assertTrue(caughtUp.getChanges().isEmpty());
+        assertEquals(second.getNext(), caughtUp.getNext());
+    }
+
+    @Test
+    void getChangesSince_WaitsAtARecentGap() {
+        ProductChange before = append(Instant.now());
+        ProductChange missing = append(Instant.now());
+        append(Instant.now());
+        productChangeRepository.delete(missing);
+
+        ProductChangeFeedResponse feed = productChangeService.getChangesSince(before.getSeq() - 1, 10);
+
+        // The missing change may belong to a write that has not committed yet
+        assertEquals(List.of(before.getSeq()), feed.getChanges().stream().map(ProductChangeResponse::getSeq).toList());
+        assertEquals(before.getSeq(), feed.getNext());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void getChangesSince_SkipsAGapOlderThanTheTimeout() {
+        Instant longAgo = Instant.now().minus(Duration.ofHours(1));
+        ProductChange before = append(longAgo);
+        ProductChange missing = append(longAgo);
+        ProductChange after = append(longAgo);
+        productChangeRepository.delete(missing);
+
+        ProductChangeFeedResponse feed = productChangeService.getChangesSince(before.getSeq() - 1, 10);
+
+        assertEquals(List.of(before.getSeq(), after.getSeq()),
+                feed.getChanges().stream().map(ProductChangeResponse::getSeq).toList());
+    }
+
+    @Test
+    void compact_DeletesOldChangesAndExpiresCursorsBehindThem() {
+        Instant longAgo = Instant.now().minus(Duration.ofDays(30));
+        ProductChange oldest = append(longAgo);
+        ProductChange boundary = append(longAgo);
+        ProductChange recent = append(Instant.now());
+
+        assertEquals(1, productChangeService.compact(Instant.now().minus(Duration.ofDays(1)), 10));
+
+        // The newest old change stays, so the first retained change is never a fresh gap
+        assertEquals(List.of(boundary.getSeq(), recent.getSeq()),
+                productChangeRepository.findAll().stream().map(ProductChange::getSeq).toList());
+        ChangeFeedExpiredException expired = assertThrows(ChangeFeedExpiredException.class,
+                () -> productChangeService.getChangesSince(oldest.getSeq() - 1, 10));
+        assertEquals(oldest.getSeq(), expired.getResumeFrom());
+        // A consumer that had read everything compacted just continues
+        assertEquals(2, productChangeService.getChangesSince(oldest.getSeq(), 10).getChanges().size());
+        assertEquals(0, productChangeService.compact(Instant.now().minus(Duration.ofDays(1)), 10));
+    }
+
+    private ProductChange append(Instant changedAt) {
+        return productChangeRepository.saveAndFlush(ProductChange.builder()
+                .productId(1)
+                .operation(ProductChangeOperation.UPDATED)
+                .changedAt(changedAt)
+                .build());
+    }
+
+    private static ProductRequest product(String name) {
+        return ProductRequest.builder()
+                .productName(name)
+                .items(List.of(ProductRequest.ItemRequest.builder().quantity(1).build()))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.enums.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", "password", new ArrayList<>())
+        );
+        productService.createProduct(ProductRequest.builder()
+                .productName("Keyboard, mechanical")
+                .items(List.of(
+                        ProductRequest.ItemRequest.builder().quantity(1).build(),
+                        ProductRequest.ItemRequest.builder().quantity(2).build()))
+                .build());
+        productService.createProduct(ProductRequest.builder()
+                .productName("Mouse")
+                .items(List.of())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void exportProducts_Ndjson_WritesOneProductPerLine() throws Exception {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertEquals(2, lines.size());
+        JsonNode keyboard = objectMapper.readTree(lines.get(0));
+        assertEquals("Keyboard, mechanical", keyboard.get("productName").asText());
+        assertEquals(2, keyboard.get("items").size());
+        JsonNode mouse = objectMapper.readTree(lines.get(1));
+        assertEquals("Mouse", mouse.get("productName").asText());
+        assertEquals(0, mouse.get("items").size());
+    }
+
+    @Test
+    void exportProducts_Csv_WritesOneItemPerLine() throws Exception {
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("product_id,product_name"));
+        assertTrue(lines.get(1).contains(",\"Keyboard, mechanical\",testuser,"));
+        assertTrue(lines.get(3).contains(",Mouse,") && lines.get(3).endsWith(",,"));
+    }
+
+    private List<String> export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        productExportService.exportProducts(format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,180 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.CursorPageResponse;
+import com.anurag.productapi.dto.response.ProductResponse;
+import com.anurag.productapi.entity.Item;
+import com.anurag.productapi.repository.ProductRepository;
+import com.anurag.productapi.stream.ProductChangeBroadcaster;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts how many SQL statements the product service issues, using Hibernate statistics.
+ * Data is committed (no test transaction) so that every query really hits the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceStatementCountTest {
+
+    private static final int PRODUCT_COUNT = 12;
+    private static final int ITEMS_PER_PRODUCT = 3;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Its feed reader queries the change feed on another thread after each commit, which the statistics would count
+    @MockitoBean
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", "password", new ArrayList<>())
+        );
+
+        List<ProductRequest.ItemRequest> items = IntStream.rangeClosed(1, ITEMS_PER_PRODUCT)
+                .mapToObj(quantity -> ProductRequest.ItemRequest.builder().quantity(quantity).build())
+                .toList();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            productService.createProduct(ProductRequest.builder()
+                    .productName("Product " + i)
+                    .items(items)
+                    .build());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        SecurityContextHolder.clearContext();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 10})
+    void getAllProducts_IssuesConstantStatementsPerPage(int pageSize) {
+        Page<ProductResponse> page = productService.getAllProducts(PageRequest.of(0, pageSize));
+
+        assertEquals(pageSize, page.getContent().size());
+        assertEquals(PRODUCT_COUNT, page.getTotalElements());
+        page.getContent().forEach(product -> assertEquals(ITEMS_PER_PRODUCT, product.getItems().size()));
+
+        // id page + count + one fetch of the page's products with their items
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProductsAfter_SeeksWithoutCountQuery() {
+        CursorPageResponse<ProductResponse> first = productService.getProductsAfter(null, 5);
+        CursorPageResponse<ProductResponse> second = productService.getProductsAfter(first.getNext(), 5);
+        statistics.clear();
+
+        CursorPageResponse<ProductResponse> third = productService.getProductsAfter(second.getNext(), 5);
+
+        assertEquals(PRODUCT_COUNT - 10, third.getContent().size());
+        assertNull(third.getNext());
+        third.getContent().forEach(product -> assertEquals(ITEMS_PER_PRODUCT, product.getItems().size()));
+
+        // seek query + one fetch of the page's products with their items
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateProduct_ChangingOneQuantity_IssuesOneItemUpdate() {
+        ProductResponse product = productService.getAllProducts(PageRequest.of(0, 1)).getContent().get(0);
+        List<ProductRequest.ItemRequest> items = toItemRequests(product);
+        items.get(0).setQuantity(items.get(0).getQuantity() + 10);
+        statistics.clear();
+
+        ProductResponse updated = productService.updateProduct(product.getId(), ProductRequest.builder()
+                .productName(product.getProductName())
+                .items(items)
+                .build());
+
+        assertEquals(ITEMS_PER_PRODUCT, updated.getItems().size());
+        EntityStatistics itemStatistics = statistics.getEntityStatistics(Item.class.getName());
+        assertEquals(1, itemStatistics.getUpdateCount());
+        assertEquals(0, itemStatistics.getInsertCount());
+        assertEquals(0, itemStatistics.getDeleteCount());
+        // product select + items select + product audit update + the one item update
+        // + change record insert and read back of its sequence number
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateProduct_AddingAndRemovingItems_TouchesOnlyThoseItems() {
+        ProductResponse product = productService.getAllProducts(PageRequest.of(0, 1)).getContent().get(0);
+        List<ProductRequest.ItemRequest> items = toItemRequests(product);
+        items.remove(0);
+        items.add(ProductRequest.ItemRequest.builder().quantity(42).build());
+        statistics.clear();
+
+        ProductResponse updated = productService.updateProduct(product.getId(), ProductRequest.builder()
+                .productName(product.getProductName())
+                .items(items)
+                .build());
+
+        assertEquals(ITEMS_PER_PRODUCT, updated.getItems().size());
+        EntityStatistics itemStatistics = statistics.getEntityStatistics(Item.class.getName());
+        assertEquals(0, itemStatistics.getUpdateCount());
+        assertEquals(1, itemStatistics.getInsertCount());
+        assertEquals(1, itemStatistics.getDeleteCount());
+    }
+
+    @Test
+    void deleteProducts_IssuesOneStatementPerTable() {
+        List<Integer> ids = productService.getAllProducts(PageRequest.of(0, 5)).getContent().stream()
+                .map(ProductResponse::getId)
+                .toList();
+        statistics.clear();
+
+        assertEquals(5, productService.deleteProducts(ids));
+
+        // change record insert and read back + item delete + product delete, however many products and items
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(PRODUCT_COUNT - 5, productRepository.count());
+    }
+
+    private static List<ProductRequest.ItemRequest> toItemRequests(ProductResponse product) {
+        return product.getItems().stream()
+                .map(item -> ProductRequest.ItemRequest.builder()
+                        .id(item.getId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
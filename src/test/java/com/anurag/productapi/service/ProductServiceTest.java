@@ -1,26 +1,37 @@
 package com.anurag.productapi.service;
 
+import com.anurag.productapi.cache.ProductCache;
 import com.anurag.productapi.dto.request.ProductRequest;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
 import com.anurag.productapi.dto.response.ProductResponse;
 import com.anurag.productapi.entity.Product;
+import com.anurag.productapi.enums.ProductChangeOperation;
 import com.anurag.productapi.exception.ResourceNotFoundException; // Import your custom exception
+import com.anurag.productapi.repository.ItemRepository;
 import com.anurag.productapi.repository.ProductRepository;
 import com.anurag.productapi.service.impl.ProductServiceImpl;
+import com.anurag.productapi.stream.ProductChangeBroadcaster;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +40,18 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ProductChangeService productChangeService;
+
+    @Mock
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60_000);
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -63,6 +86,7 @@ class ProductServiceTest {
         assertNotNull(response);
         assertEquals("Gaming Laptop", response.getProductName());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productChangeService).recordChanges(List.of(1), ProductChangeOperation.CREATED);
     }
 
     @Test
@@ -76,6 +100,17 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(1);
     }
 
+    @Test
+    void getProductById_SecondCall_ServedFromCache() {
+        when(productRepository.findById(1)).thenReturn(Optional.of(mockProduct));
+
+        productService.getProductById(1);
+        ProductResponse response = productService.getProductById(1);
+
+        assertEquals("Gaming Laptop", response.getProductName());
+        verify(productRepository, times(1)).findById(1);
+    }
+
     @Test
     void getProductById_NotFound_ThrowsException() {
         when(productRepository.findById(99)).thenReturn(Optional.empty());
@@ -85,6 +120,15 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(99);
     }
 
+    @Test
+    void getItemsByProductId_NotFound_ThrowsException() {
+        when(itemRepository.findItemsByProductId(eq(99), any())).thenReturn(new SliceImpl<>(List.of()));
+        when(productRepository.existsById(99)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> productService.getItemsByProductId(99, PageRequest.of(0, 10)));
+    }
+
     @Test
     void updateProduct_Success() {
         ProductRequest request = ProductRequest.builder()
@@ -100,32 +144,56 @@ class ProductServiceTest {
         assertNotNull(response);
         verify(productRepository, times(1)).findById(1);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productChangeService).recordChanges(List.of(1), ProductChangeOperation.UPDATED);
     }
 
     @Test
-    void deleteProductDTO_Success() {
-        // Arrange: Match findById call in your service
+    void updateProduct_PublishesTheRecordedChange() {
+        ProductChangeResponse change = ProductChangeResponse.builder()
+                .seq(42)
+                .productId(1)
+                .operation(ProductChangeOperation.UPDATED)
+                .build();
         when(productRepository.findById(1)).thenReturn(Optional.of(mockProduct));
-        // Match deleteById call in your service
-        doNothing().when(productRepository).deleteById(1);
+        when(productRepository.save(any(Product.class))).thenReturn(mockProduct);
+        when(productChangeService.recordChanges(List.of(1), ProductChangeOperation.UPDATED)).thenReturn(List.of(change));
+
+        productService.updateProduct(1, ProductRequest.builder()
+                .productName("Updated Laptop")
+                .items(new ArrayList<>())
+                .build());
+
+        verify(productChangeBroadcaster).publishAfterCommit(List.of(change));
+    }
+
+    @Test
+    void deleteProductDTO_Success() {
+        when(itemRepository.deleteByProductIdIn(Set.of(1))).thenReturn(3);
+        when(productRepository.deleteByIdIn(Set.of(1))).thenReturn(1);
 
-        // Act & Assert
         assertDoesNotThrow(() -> productService.deleteProduct(1));
 
-        verify(productRepository, times(1)).findById(1);
-        verify(productRepository, times(1)).deleteById(1);
+        // Set-based statements only: the product and its items are never loaded
+        verify(productRepository, never()).findById(anyInt());
+        verify(itemRepository, times(1)).deleteByProductIdIn(Set.of(1));
+        verify(productRepository, times(1)).deleteByIdIn(Set.of(1));
     }
 
     @Test
     void deleteProductDTO_NotFound_ThrowsException() {
-        // Arrange: Service checks findById first
-        when(productRepository.findById(99)).thenReturn(Optional.empty());
+        when(productRepository.deleteByIdIn(Set.of(99))).thenReturn(0);
 
-        // Act & Assert: Expect ResourceNotFoundException
         assertThrows(ResourceNotFoundException.class, () -> productService.deleteProduct(99));
+    }
 
-        verify(productRepository, times(1)).findById(99);
-        // Verify delete was never called
-        verify(productRepository, never()).deleteById(anyInt());
+    @Test
+    void deleteProducts_IgnoresDuplicateAndUnknownIds() {
+        when(productRepository.deleteByIdIn(Set.of(1, 2, 99))).thenReturn(2);
+
+        int deleted = productService.deleteProducts(List.of(1, 2, 2, 99));
+
+        assertEquals(2, deleted);
+        verify(itemRepository, times(1)).deleteByProductIdIn(Set.of(1, 2, 99));
+        verify(productChangeService).recordChanges(Set.of(1, 2, 99), ProductChangeOperation.DELETED);
     }
-}
\ No newline at end of file
+}
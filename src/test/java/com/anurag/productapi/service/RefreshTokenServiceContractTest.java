@@ -0,0 +1,162 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.entity.RefreshToken;
+import com.anurag.productapi.entity.User;
+import com.anurag.productapi.enums.Roles;
+import com.anurag.productapi.exception.TokenRefreshException;
+import com.anurag.productapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link RefreshTokenService} store must have, exercised through the service alone.
+ * Subclasses pick the store. Transactional here, since Spring takes the test transaction from the class
+ * declaring the test method.
+ */
+@Transactional
+abstract class RefreshTokenServiceContractTest {
+
+    @Autowired
+    protected RefreshTokenService refreshTokenService;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Value("${app.jwt.maxSessionsPerUser}")
+    protected int maxSessionsPerUser;
+
+    @Value("${app.jwt.refreshExpirationMs}")
+    protected long refreshExpirationMs;
+
+    protected User user;
+
+    @BeforeEach
+    void setUp() {
+        // Start from an empty store: sessions left by other tests would count towards the purge
+        Instant farFuture = Instant.now().plus(Duration.ofDays(3650));
+        while (refreshTokenService.purgeExpired(farFuture, 1000) > 0) {
+            // keep purging
+        }
+        user = createUser("sessionUser");
+    }
+
+    protected User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("hash")
+                .role(Roles.USER)
+                .build());
+    }
+
+    @Test
+    void createRefreshToken_CanBeFoundByItsToken() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+
+        RefreshToken found = refreshTokenService.findByToken(session.getToken());
+
+        assertEquals(session.getId(), found.getId());
+        assertEquals(user.getUsername(), found.getUser().getUsername());
+        // 32 random bytes, Base64URL without padding
+        assertEquals(43, session.getToken().length());
+    }
+
+    @Test
+    void findByToken_UnknownToken_Fails() {
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.findByToken("no-such-token"));
+    }
+
+    @Test
+    void createRefreshToken_KeepsOtherSessionsUpToTheCap() {
+        List<RefreshToken> sessions = new ArrayList<>();
+        for (int i = 0; i <= maxSessionsPerUser; i++) {
+            sessions.add(refreshTokenService.createRefreshToken(user));
+        }
+
+        // Only the oldest session was ended
+        assertFalse(exists(sessions.get(0)));
+        for (int i = 1; i <= maxSessionsPerUser; i++) {
+            assertTrue(exists(sessions.get(i)));
+        }
+    }
+
+    @Test
+    void rotate_KeepsTheSessionAndReplacesItsToken() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+
+        RefreshToken rotated = refreshTokenService.rotate(refreshTokenService.findByToken(session.getToken()));
+
+        assertEquals(session.getId(), rotated.getId());
+        assertNotEquals(session.getToken(), rotated.getToken());
+        assertEquals(session.getId(), refreshTokenService.findByToken(rotated.getToken()).getId());
+        assertFalse(exists(session));
+    }
+
+    @Test
+    void rotate_SameTokenTwice_SecondAttemptFails() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+        RefreshToken presentedTwice = refreshTokenService.findByToken(session.getToken());
+
+        refreshTokenService.rotate(refreshTokenService.findByToken(session.getToken()));
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotate(presentedTwice));
+    }
+
+    @Test
+    void verifyExpiration_ExpiredToken_FailsAndEndsTheSession() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+        RefreshToken expired = refreshTokenService.findByToken(session.getToken());
+        expired.setExpiryDate(Instant.now().minusSeconds(1));
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.verifyExpiration(expired));
+        assertFalse(exists(session));
+    }
+
+    @Test
+    void deleteByUser_EndsOnlyThatUsersSessions() {
+        User otherUser = createUser("otherSessionUser");
+        RefreshToken first = refreshTokenService.createRefreshToken(user);
+        RefreshToken second = refreshTokenService.createRefreshToken(user);
+        RefreshToken other = refreshTokenService.createRefreshToken(otherUser);
+
+        refreshTokenService.deleteByUser(user);
+
+        assertFalse(exists(first));
+        assertFalse(exists(second));
+        assertTrue(exists(other));
+    }
+
+    @Test
+    void purgeExpired_PurgesInBatchesUntilNoneAreLeft() {
+        List<RefreshToken> sessions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sessions.add(refreshTokenService.createRefreshToken(createUser("purgeUser" + i)));
+        }
+        Instant afterExpiry = Instant.now().plus(Duration.ofMillis(refreshExpirationMs)).plus(Duration.ofMinutes(1));
+
+        assertEquals(0, refreshTokenService.purgeExpired(Instant.now(), 2));
+        assertEquals(2, refreshTokenService.purgeExpired(afterExpiry, 2));
+        assertEquals(1, refreshTokenService.purgeExpired(afterExpiry, 2));
+        assertEquals(0, refreshTokenService.purgeExpired(afterExpiry, 2));
+
+        sessions.forEach(session -> assertFalse(exists(session)));
+    }
+
+    protected boolean exists(RefreshToken session) {
+        try {
+            refreshTokenService.findByToken(session.getToken());
+            return true;
+        } catch (TokenRefreshException e) {
+            return false;
+        }
+    }
+}
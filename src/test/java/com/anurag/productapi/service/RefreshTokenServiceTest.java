@@ -0,0 +1,108 @@
+package com.anurag.productapi.service;
+
+import com.anurag.productapi.entity.RefreshToken;
+import com.anurag.productapi.repository.RefreshTokenRepository;
+import com.anurag.productapi.security.TokenDigests;
+import com.anurag.productapi.service.impl.RefreshTokenServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.jwt.refreshTokenStore.type=jpa")
+@ActiveProfiles("test")
+class RefreshTokenServiceTest extends RefreshTokenServiceContractTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void createRefreshToken_OverTheCap_LeavesCapRows() {
+        for (int i = 0; i <= maxSessionsPerUser; i++) {
+            refreshTokenService.createRefreshToken(user);
+        }
+
+        assertEquals(maxSessionsPerUser, refreshTokenRepository.findSessionIdsNewestFirst(user).size());
+    }
+
+    @Test
+    void validateSessionCap_WithoutRoomForASession_Fails() {
+        RefreshTokenServiceImpl service = new RefreshTokenServiceImpl(refreshTokenRepository);
+        ReflectionTestUtils.setField(service, "maxSessionsPerUser", 0);
+
+        assertThrows(IllegalArgumentException.class, service::validateSessionCap);
+    }
+
+    @Test
+    void rotate_UpdatesTheRowInPlace() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+
+        refreshTokenService.rotate(session);
+        entityManager.clear();
+
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @Test
+    void createRefreshToken_StoresOnlyTheDigest() {
+        RefreshToken session = refreshTokenService.createRefreshToken(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        RefreshToken stored = refreshTokenRepository.findById(session.getId()).orElseThrow();
+        assertNull(stored.getToken());
+        assertEquals(TokenDigests.DIGEST_LENGTH, stored.getTokenHash().length);
+        assertArrayEquals(TokenDigests.sha256(session.getToken()), stored.getTokenHash());
+    }
+
+    @Test
+    void findByToken_LegacyUuidTokenMigratedToDigest_IsStillAccepted() {
+        String legacyToken = UUID.randomUUID().toString();
+        RefreshToken legacy = refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenDigests.sha256(legacyToken))
+                .expiryDate(Instant.now().plus(Duration.ofDays(1)))
+                .build());
+
+        RefreshToken found = refreshTokenService.findByToken(legacyToken);
+
+        assertEquals(legacy.getId(), found.getId());
+        assertEquals(legacyToken, found.getToken());
+    }
+
+    @Test
+    void purgeExpired_DeletesOnlyExpiredTokensInBatches() {
+        Instant now = Instant.now();
+        for (int i = 1; i <= 5; i++) {
+            refreshTokenRepository.save(token(now.minus(Duration.ofDays(i))));
+        }
+        refreshTokenRepository.save(token(now.plus(Duration.ofDays(1))));
+        refreshTokenRepository.save(token(now.plus(Duration.ofDays(2))));
+
+        assertEquals(2, refreshTokenService.purgeExpired(now, 2));
+        assertEquals(2, refreshTokenService.purgeExpired(now, 2));
+        assertEquals(1, refreshTokenService.purgeExpired(now, 2));
+        assertEquals(0, refreshTokenService.purgeExpired(now, 2));
+
+        assertEquals(2, refreshTokenRepository.count());
+    }
+
+    private RefreshToken token(Instant expiryDate) {
+        return RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenDigests.sha256(UUID.randomUUID().toString()))
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
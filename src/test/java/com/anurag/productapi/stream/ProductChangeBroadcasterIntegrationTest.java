@@ -0,0 +1,127 @@
+package com.anurag.productapi.stream;
+
+import com.anurag.productapi.controller.ProductStreamController;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.entity.Product;
+import com.anurag.productapi.enums.ProductChangeOperation;
+import com.anurag.productapi.repository.ProductRepository;
+import com.anurag.productapi.service.ProductChangeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductChangeBroadcasterIntegrationTest {
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ProductChangeBroadcaster broadcaster;
+    private MockMvc mockMvc;
+    private Product slow;
+    private Product fast;
+
+    @BeforeEach
+    void setUp() {
+        slow = productRepository.save(product("Slow writer"));
+        fast = productRepository.save(product("Fast writer"));
+        // Writes rolled back by other tests leave gaps that only settle after the gap timeout; start past them
+        transactionTemplate.executeWithoutResult(status ->
+                productChangeService.recordChanges(List.of(slow.getId()), ProductChangeOperation.CREATED));
+        broadcaster = new ProductChangeBroadcaster(productChangeService, 2, 16, 10, 60_000, 1, 50);
+        broadcaster.start();
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductStreamController(broadcaster)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+        productRepository.deleteAllById(List.of(slow.getId(), fast.getId()));
+    }
+
+    @Test
+    void changesCommittedOutOfSequence_ArePushedInSequenceOrder() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        CountDownLatch slowRecorded = new CountDownLatch(1);
+        CountDownLatch fastCommitted = new CountDownLatch(1);
+
+        // The slow transaction takes the lower sequence number but commits last
+        CompletableFuture<Long> slowSeq = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            long seq = record(slow);
+            slowRecorded.countDown();
+            try {
+                assertTrue(fastCommitted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return seq;
+        }));
+        assertTrue(slowRecorded.await(5, TimeUnit.SECONDS));
+        long fastSeq = transactionTemplate.execute(status -> record(fast));
+
+        // Pushing the fast change now would let a client resume past the slow one
+        Thread.sleep(200);
+        assertFalse(response.getContentAsString().contains("\"productId\":" + fast.getId()));
+
+        fastCommitted.countDown();
+        long slowSeqValue = slowSeq.get(5, TimeUnit.SECONDS);
+        assertTrue(slowSeqValue < fastSeq);
+
+        String stream = awaitContent(response, "\"productId\":" + fast.getId());
+        assertTrue(stream.indexOf("id:" + slowSeqValue + "\n") < stream.indexOf("id:" + fastSeq + "\n"));
+    }
+
+    private long record(Product product) {
+        List<ProductChangeResponse> changes =
+                productChangeService.recordChanges(List.of(product.getId()), ProductChangeOperation.UPDATED);
+        broadcaster.publishAfterCommit(changes);
+        return changes.get(0).getSeq();
+    }
+
+    private static Product product(String name) {
+        return Product.builder()
+                .productName(name)
+                .createdBy("stream-test")
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    // Events are written by the sender threads, field by field; wait for the last part expected
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Expected " + expected + " in:\n" + content);
+        return content;
+    }
+}
@@ -0,0 +1,167 @@
+package com.anurag.productapi.stream;
+
+import com.anurag.productapi.controller.ProductStreamController;
+import com.anurag.productapi.dto.response.ProductChangeFeedResponse;
+import com.anurag.productapi.dto.response.ProductChangeResponse;
+import com.anurag.productapi.enums.ProductChangeOperation;
+import com.anurag.productapi.exception.ChangeFeedExpiredException;
+import com.anurag.productapi.exception.ServiceOverloadedException;
+import com.anurag.productapi.service.ProductChangeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class ProductChangeBroadcasterTest {
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private final ProductChangeService productChangeService = mock(ProductChangeService.class);
+    private final ProductChangeBroadcaster broadcaster =
+            new ProductChangeBroadcaster(productChangeService, 2, QUEUE_CAPACITY, 10, 60_000, 1, 50);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ProductStreamController(broadcaster))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publishedChanges_ArePushedWithTheirSequenceAsId() throws Exception {
+        MockHttpServletResponse response = subscribe(null);
+
+        broadcaster.publish(List.of(change(5)));
+
+        String stream = awaitContent(response, "\"productId\":5");
+        assertTrue(stream.contains("id:5"));
+        assertTrue(stream.contains("event:" + ProductChangeBroadcaster.CHANGE_EVENT));
+    }
+
+    @Test
+    void committedChangeAfterAGap_IsHeldBackUntilTheGapSettles() throws Exception {
+        // Change 1 is still uncommitted at first; the feed stops before the gap
+        when(productChangeService.getChangesSince(0, 10))
+                .thenReturn(feed(0, false))
+                .thenReturn(feed(2, false, change(1), change(2)));
+        MockHttpServletResponse response = subscribe(null);
+
+        broadcaster.publishAfterCommit(List.of(change(2)));
+
+        // Read again after gapRetryMs, without another commit
+        String stream = awaitContent(response, "\"productId\":2");
+        assertTrue(stream.indexOf("id:1") < stream.indexOf("id:2"));
+        verify(productChangeService, atLeast(2)).getChangesSince(0, 10);
+    }
+
+    @Test
+    void reconnecting_ReplaysMissedChangesOnce() throws Exception {
+        when(productChangeService.getChangesSince(3, 10)).thenReturn(feed(5, false, change(4), change(5)));
+
+        MockHttpServletResponse response = subscribe(3L);
+        // 5 was replayed already; only 6 is new
+        broadcaster.publish(List.of(change(5), change(6)));
+
+        String stream = awaitContent(response, "\"productId\":6");
+        assertTrue(stream.indexOf("id:4") < stream.indexOf("id:5"));
+        assertEquals(stream.indexOf("id:5"), stream.lastIndexOf("id:5"));
+    }
+
+    @Test
+    void slowSubscriber_IsDroppedWithAResumeToken() throws Exception {
+        // Changes keep arriving while the replay is still being written, more than the queue holds
+        when(productChangeService.getChangesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            broadcaster.publish(List.of(change(7), change(8), change(9)));
+            return feed(6, false);
+        });
+
+        MockHttpServletResponse response = subscribe(6L);
+
+        String stream = awaitContent(response, "\"resumeFrom\":6");
+        assertTrue(stream.contains("event:" + ProductChangeBroadcaster.RESYNC_EVENT));
+        assertTrue(stream.contains("id:6"));
+        assertFalse(stream.contains("id:7"));
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1, broadcaster.droppedCount());
+    }
+
+    @Test
+    void subscriberFarBehind_IsToldWhereToContinue() throws Exception {
+        when(productChangeService.getChangesSince(0, 10)).thenReturn(feed(2, true, change(1), change(2)));
+
+        String stream = awaitContent(subscribe(0L), "\"resumeFrom\":2");
+
+        assertTrue(stream.contains("event:" + ProductChangeBroadcaster.RESYNC_EVENT));
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void subscriberBehindCompaction_IsToldToReReadTheCatalog() throws Exception {
+        when(productChangeService.getChangesSince(1, 10)).thenThrow(new ChangeFeedExpiredException(1, 50));
+
+        String stream = awaitContent(subscribe(1L), "\"resumeFrom\":null");
+
+        assertTrue(stream.contains("event:" + ProductChangeBroadcaster.RESYNC_EVENT));
+    }
+
+    @Test
+    void subscribersBeyondTheMaximum_AreRejected() throws Exception {
+        subscribe(null);
+        subscribe(null);
+
+        assertThrows(ServiceOverloadedException.class, () -> broadcaster.subscribe(null));
+    }
+
+    private MockHttpServletResponse subscribe(Long since) throws Exception {
+        MvcResult result = mockMvc.perform(since == null
+                        ? get("/api/v1/products/stream")
+                        : get("/api/v1/products/stream").header("Last-Event-ID", since))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    // Events are written by the sender threads, field by field; wait for the last part expected
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Expected " + expected + " in:\n" + content);
+        return content;
+    }
+
+    private static ProductChangeResponse change(long seq) {
+        return ProductChangeResponse.builder()
+                .seq(seq)
+                .productId((int) seq)
+                .operation(ProductChangeOperation.UPDATED)
+                .build();
+    }
+
+    private static ProductChangeFeedResponse feed(long next, boolean hasMore, ProductChangeResponse... changes) {
+        return ProductChangeFeedResponse.builder()
+                .changes(Arrays.asList(changes))
+                .next(next)
+                .hasMore(hasMore)
+                .build();
+    }
+}